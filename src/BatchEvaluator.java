@@ -0,0 +1,207 @@
+package src;
+
+import src.Board.BoardFormat;
+import src.Board.CircuitBoard;
+import src.Board.Evaluation;
+import src.Board.EvaluationCache;
+import src.Component.Component;
+import src.Component.ComponentType;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Headless grading: reads boards in the BoardFormat text format from files (or stdin, given as
+// `-` or no files at all), evaluates them on all cores and writes one JSON object per board to
+// stdout, in input order. Never touches JavaFX, so it starts fast and runs without a display.
+// Usage: BatchEvaluator [-j threads] [file ...]
+public class BatchEvaluator {
+    private static final double TARGET_DURATION = 5.0;
+    private static final double TOLERANCE = 0.1;
+    private static final int CHUNK = 64;        // boards per task
+    private static final int IN_FLIGHT = 4;     // tasks queued per thread before the reader waits
+
+    private final ExecutorService pool;
+    private final int window;
+    private final Writer out;
+    private final ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+    // Identical submissions are evaluated once
+    private final EvaluationCache cache = new EvaluationCache();
+
+    private List<Entry> chunk = new ArrayList<>();
+    private int boards = 0;
+    private int failures = 0;
+
+    public BatchEvaluator(int threads, Writer out) {
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.window = threads * IN_FLIGHT;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-j") && i + 1 < args.length) threads = Math.max(1, Integer.parseInt(args[++i]));
+            else files.add(args[i]);
+        }
+        if (files.isEmpty()) files.add("-");
+
+        Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        BatchEvaluator evaluator = new BatchEvaluator(threads, out);
+        for (String file : files) {
+            if (file.equals("-")) {
+                evaluator.read("stdin", System.in);
+            } else {
+                try (InputStream in = new FileInputStream(file)) {
+                    evaluator.read(file, in);
+                }
+            }
+        }
+        evaluator.finish();
+        System.err.println(evaluator.boards + " boards, " + evaluator.failures + " unreadable");
+    }
+
+    // Splits the input into records here and leaves parsing and evaluation to the pool
+    public void read(String name, InputStream in) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        BoardFormat.Reader records = new BoardFormat.Reader(reader);
+        List<String> record;
+        while ((record = records.next()) != null) {
+            chunk.add(new Entry(name + ":" + records.getLine(), record));
+            boards++;
+            if (chunk.size() == CHUNK) submit();
+        }
+    }
+
+    public void finish() throws IOException, InterruptedException {
+        if (!chunk.isEmpty()) submit();
+        while (!pending.isEmpty()) writeOldest();
+        out.flush();
+        pool.shutdown();
+    }
+
+    private void submit() throws IOException, InterruptedException {
+        List<Entry> records = chunk;
+        chunk = new ArrayList<>();
+        pending.add(pool.submit(new Task(records)));
+        while (pending.size() > window) writeOldest();
+    }
+
+    private void writeOldest() throws IOException, InterruptedException {
+        try {
+            out.write(pending.poll().get());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Evaluation failed", e.getCause());
+        }
+    }
+
+    private static class Entry {
+        final String origin; // file:line of the header
+        final List<String> lines;
+        Entry(String origin, List<String> lines) {
+            this.origin = origin;
+            this.lines = lines;
+        }
+    }
+
+    private class Task implements Callable<String> {
+        private final List<Entry> records;
+
+        Task(List<Entry> records) {
+            this.records = records;
+        }
+
+        @Override
+        public String call() {
+            StringBuilder sb = new StringBuilder(records.size() * 160);
+            for (Entry record : records) evaluate(record.origin, record.lines, sb);
+            return sb.toString();
+        }
+    }
+
+    // One JSON line per board: the outcome, or an "error" for a record that does not parse
+    private void evaluate(String origin, List<String> record, StringBuilder sb) {
+        sb.append("{\"id\":");
+        string(sb, BoardFormat.idOf(record));
+        sb.append(",\"source\":");
+        string(sb, origin);
+
+        CircuitBoard board;
+        try {
+            board = BoardFormat.parse(record);
+        } catch (IllegalArgumentException e) {
+            synchronized (this) { failures++; }
+            sb.append(",\"error\":");
+            string(sb, e.getMessage());
+            sb.append("}\n");
+            return;
+        }
+        board.setEvaluationCache(cache);
+
+        List<Component> path = board.getValidPath();
+        Evaluation result = board.evaluate();
+        double resistance = result.getResistance();
+        double capacitance = result.getCapacitance();
+        double duration = 5.0 * result.getTau();
+        boolean withinLimits = withinLimit(board.countComponents(ComponentType.RESISTOR), board.getMaxResistors())
+                && withinLimit(board.countComponents(ComponentType.CAPACITOR), board.getMaxCapacitors());
+        boolean success = result.isValid() && withinLimits
+                && Math.abs(duration - TARGET_DURATION) < TOLERANCE && resistance > 0;
+
+        sb.append(",\"valid\":").append(result.isValid());
+        sb.append(",\"pathLength\":").append(path == null ? 0 : path.size());
+        sb.append(",\"resistance\":");
+        number(sb, resistance);
+        sb.append(",\"capacitance\":");
+        number(sb, capacitance);
+        sb.append(",\"tau\":");
+        number(sb, result.getTau());
+        sb.append(",\"duration\":");
+        number(sb, duration);
+        sb.append(",\"withinLimits\":").append(withinLimits);
+        sb.append(",\"success\":").append(success);
+        sb.append("}\n");
+    }
+
+    private static boolean withinLimit(int count, int limit) {
+        return limit == -1 || count <= limit;
+    }
+
+    private static void number(StringBuilder sb, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) sb.append("null");
+        else sb.append(value);
+    }
+
+    private static void string(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') sb.append('\\').append(ch);
+            else if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+            else sb.append(ch);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,35 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Board.PathView;
+
+// Fails unless searchValidPath allocates nothing once warmed up.
+// Usage: AllocationCheck [size]
+public class AllocationCheck {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        check("random", BoardGenerator.random(size, size, 42));
+        check("worst", BoardGenerator.worstCase(size, size));
+        check("worst packed", BoardGenerator.worstCase(size, size, true));
+    }
+
+    private static void check(String label, CircuitBoard board) {
+        long cells = 0;
+        for (int i = 0; i < 20_000; i++) cells += board.searchValidPath().size();
+
+        // The counter itself may allocate a little; measure it with nothing in between
+        long probe = Bench.allocatedBytes();
+        long overhead = Bench.allocatedBytes() - probe;
+
+        int rounds = 1000;
+        long before = Bench.allocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            PathView path = board.searchValidPath();
+            cells += path.size();
+        }
+        long allocated = Bench.allocatedBytes() - before - overhead;
+        System.out.printf("%-12s %d bytes over %d searches (%d cells visited)%n", label, allocated, rounds, cells);
+        if (allocated != 0) throw new IllegalStateException(label + ": searchValidPath allocated " + allocated + " bytes");
+    }
+}
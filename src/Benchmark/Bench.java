@@ -0,0 +1,70 @@
+package src.Benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+// Minimal headless harness: time-boxed warm-up, then a measured run reporting throughput
+// and allocation the way JMH's gc profiler does (bytes/op, MB/s, collections and GC time).
+public class Bench {
+    private static volatile Object sink;
+
+    private final long warmupNanos;
+    private final long measureNanos;
+
+    public Bench(long warmupMillis, long measureMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measureNanos = measureMillis * 1_000_000L;
+    }
+
+    public void run(String name, Supplier<?> operation) {
+        loop(operation, warmupNanos);
+
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long ops = loop(operation, measureNanos);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-44s %12.1f ops/s %12.1f ns/op %12.1f B/op %9.1f MB/s  gc: %d (%d ms)%n",
+                name,
+                ops * 1e9 / elapsed,
+                (double) elapsed / ops,
+                (double) allocated / ops,
+                allocated / 1e6 / (elapsed / 1e9),
+                gcCount() - gcCountBefore,
+                gcTime() - gcTimeBefore);
+    }
+
+    private static long loop(Supplier<?> operation, long nanos) {
+        long ops = 0;
+        long end = System.nanoTime() + nanos;
+        do {
+            sink = operation.get();
+            ops++;
+        } while (System.nanoTime() < end);
+        return ops;
+    }
+
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) count += gc.getCollectionCount();
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) time += gc.getCollectionTime();
+        return time;
+    }
+}
@@ -0,0 +1,106 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Board.Netlist;
+import src.Component.Component;
+import src.Utils.ConnectionLogic;
+
+import java.util.List;
+
+// Headless benchmarks for the board hot paths on generated boards.
+// Usage: BoardBenchmark [sizes, e.g. 3x7,5x6,100x100,1000x1000] [warm-up ms] [measure ms]
+public class BoardBenchmark {
+
+    public static void main(String[] args) {
+        String sizes = args.length > 0 ? args[0] : "3x7,5x6,32x32,100x100,316x316,1000x1000";
+        long warmup = args.length > 1 ? Long.parseLong(args[1]) : 300;
+        long measure = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        Bench bench = new Bench(warmup, measure);
+
+        for (String size : sizes.split(",")) {
+            String[] parts = size.trim().split("x");
+            int rows = Integer.parseInt(parts[0]);
+            int cols = Integer.parseInt(parts[1]);
+
+            run(bench, "random " + size, BoardGenerator.random(rows, cols, 42));
+            run(bench, "worst " + size, BoardGenerator.worstCase(rows, cols));
+        }
+    }
+
+    private static void run(Bench bench, String label, CircuitBoard board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        List<Component> path = board.getValidPath();
+        System.out.printf("== %s (%d cells, path %s)%n", label, rows * cols,
+                path == null ? "open" : path.size() + " components");
+
+        bench.run("getValidPath", board::getValidPath);
+
+        // Rotating a piece four times leaves the board unchanged but forces an index rebuild
+        int[] rotatable = findRotatable(board);
+        if (rotatable != null) {
+            bench.run("getValidPath after rotate", () -> {
+                for (int i = 0; i < 4; i++) board.rotateComponent(rotatable[0], rotatable[1]);
+                return board.getValidPath();
+            });
+        }
+
+        bench.run("floodValidPath (bitboard)", board::floodValidPath);
+        if (rotatable != null) {
+            bench.run("floodValidPath after rotate", () -> {
+                for (int i = 0; i < 4; i++) board.rotateComponent(rotatable[0], rotatable[1]);
+                return board.floodValidPath();
+            });
+        }
+
+        bench.run("traceValidPath (BFS)", board::traceValidPath);
+        bench.run("searchValidPath (scratch BFS)", board::searchValidPath);
+
+        bench.run("areConnected (whole board)", () -> {
+            int connections = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    Component comp = board.getComponent(r, c);
+                    if (ConnectionLogic.areConnected(comp, board.getComponent(r, c + 1), 0, 1)) connections++;
+                    if (ConnectionLogic.areConnected(comp, board.getComponent(r + 1, c), 1, 0)) connections++;
+                }
+            }
+            return connections;
+        });
+
+        bench.run("getFlowCount (whole board)", () -> {
+            int flow = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    flow += ConnectionLogic.getFlowCount(board, board.getComponent(r, c));
+                }
+            }
+            return flow;
+        });
+
+        Netlist netlist = board.getNetlist();
+        System.out.printf("netlist: %d nodes, %d branches, %d elements for %d cells%n", netlist.getNodeCount(),
+                netlist.getBranchCount(), netlist.getElementCount(), netlist.getCellCount());
+        bench.run("Netlist.compile", () -> Netlist.compile(board));
+        bench.run("hasValidPath (cached netlist)", board::hasValidPath);
+        if (rotatable != null) {
+            // Four turns bring the board back to a state the cache has seen
+            bench.run("evaluate after rotate (cached)", () -> {
+                for (int i = 0; i < 4; i++) board.rotateComponent(rotatable[0], rotatable[1]);
+                return board.evaluate();
+            });
+        }
+        bench.run("calculateTotalResistance", () -> board.calculateTotalResistance(path));
+        bench.run("calculateTotalCapacitance", () -> board.calculateTotalCapacitance(path));
+    }
+
+    private static int[] findRotatable(CircuitBoard board) {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                Component comp = board.getComponent(r, c);
+                if (comp != null && comp.canRotate() && !comp.isLocked()) return new int[] {r, c};
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package src.Benchmark;
+
+import src.Board.CustomBoard;
+import src.Component.*;
+import src.Utils.ConnectionLogic;
+
+import java.util.Random;
+
+public class BoardGenerator {
+
+    // Every cell filled with a random piece at a random rotation, Source top-left and Ground bottom-right.
+    public static CustomBoard random(int rows, int cols, long seed) {
+        return random(rows, cols, seed, false);
+    }
+
+    public static CustomBoard random(int rows, int cols, long seed, boolean packed) {
+        Random random = new Random(seed);
+        CustomBoard board = new CustomBoard(rows, cols, -1, -1, packed);
+        board.addPreset(0, 0, () -> lock(new Source("Source", 10.0)));
+        board.addPreset(rows - 1, cols - 1, () -> lock(new Destination("Ground")));
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board.getComponent(r, c) != null) continue;
+                Component comp;
+                switch (random.nextInt(8)) {
+                    case 0: comp = new Block("Block"); break;
+                    case 1: comp = new CornerWire("Corner"); break;
+                    case 2: comp = new TWire("Junction"); break;
+                    case 3: comp = new Resistor("Resistor", 1 + random.nextInt(10)); break;
+                    case 4: comp = new Capacitor("Capacitor", 0.1 * (1 + random.nextInt(10))); break;
+                    default: comp = new Wire("Wire"); break;
+                }
+                if (comp.canRotate()) {
+                    for (int i = random.nextInt(4); i > 0; i--) comp.rotate();
+                }
+                board.placeComponent(r, c, comp);
+            }
+        }
+        return board;
+    }
+
+    // One serpentine path through every cell: Source top-left, Ground at the end of the last row.
+    // Searches have to visit the whole board and the solver sees one long series chain.
+    public static CustomBoard worstCase(int rows, int cols) {
+        return worstCase(rows, cols, false);
+    }
+
+    public static CustomBoard worstCase(int rows, int cols, boolean packed) {
+        if (cols < 2) throw new IllegalArgumentException("worst-case board needs at least 2 columns");
+        CustomBoard board = new CustomBoard(rows, cols, -1, -1, packed);
+        int straight = 0;
+
+        for (int r = 0; r < rows; r++) {
+            boolean rightwards = r % 2 == 0;
+            for (int i = 0; i < cols; i++) {
+                int c = rightwards ? i : cols - 1 - i;
+                int in = rightwards ? ConnectionLogic.LEFT : ConnectionLogic.RIGHT;
+                int out = rightwards ? ConnectionLogic.RIGHT : ConnectionLogic.LEFT;
+                if (i == 0 && r > 0) in = ConnectionLogic.TOP;
+                if (i == cols - 1 && r < rows - 1) out = ConnectionLogic.BOTTOM;
+
+                Component comp;
+                if (r == 0 && i == 0) {
+                    board.addPreset(r, c, () -> lock(new Source("Source", 10.0)));
+                    continue;
+                } else if (r == rows - 1 && i == cols - 1) {
+                    board.addPreset(r, c, () -> lock(new Destination("Ground")));
+                    continue;
+                } else if ((in | out) == (ConnectionLogic.LEFT | ConnectionLogic.RIGHT)) {
+                    straight++;
+                    if (straight % 7 == 0) comp = new Resistor("Resistor", 1.0);
+                    else if (straight % 11 == 0) comp = new Capacitor("Capacitor", 1.0);
+                    else comp = new Wire("Wire");
+                } else {
+                    comp = new CornerWire("Corner");
+                }
+                board.placeComponent(r, c, rotateTo(comp, in | out));
+            }
+        }
+        return board;
+    }
+
+    // Resistor/capacitor lattice: bulbs act as junctions on even cells, a random resistor or
+    // capacitor (or nothing, with probability 1 - density) sits between each pair of neighbours.
+    // Source top-left feeding right, Ground on the bottom-right junction. Produces both
+    // series-parallel networks and bridges.
+    public static CustomBoard lattice(int nodeRows, int nodeCols, long seed, double density) {
+        Random random = new Random(seed);
+        int rows = nodeRows * 2 - 1;
+        int cols = nodeCols * 2 - 1;
+        CustomBoard board = new CustomBoard(rows, cols);
+        board.addPreset(0, 0, () -> lock(new Source("Source", 10.0)));
+        board.addPreset(rows - 1, cols - 1, () -> lock(new Destination("Ground")));
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board.getComponent(r, c) != null || (r % 2 == 1 && c % 2 == 1)) continue;
+                if (r % 2 == 0 && c % 2 == 0) {
+                    board.placeComponent(r, c, new Bulb("Bulb"));
+                    continue;
+                }
+                if (random.nextDouble() >= density) continue;
+                Component comp = random.nextBoolean()
+                        ? new Resistor("Resistor", 1 + random.nextInt(10))
+                        : new Capacitor("Capacitor", 0.1 * (1 + random.nextInt(10)));
+                int ports = r % 2 == 0 ? ConnectionLogic.LEFT | ConnectionLogic.RIGHT : ConnectionLogic.TOP | ConnectionLogic.BOTTOM;
+                board.placeComponent(r, c, rotateTo(comp, ports));
+            }
+        }
+        return board;
+    }
+
+    private static Component rotateTo(Component comp, int ports) {
+        for (int i = 0; i < 4 && comp.getPortMask() != ports; i++) comp.rotate();
+        return comp;
+    }
+
+    private static Component lock(Component comp) {
+        comp.setLocked(true);
+        return comp;
+    }
+}
@@ -0,0 +1,82 @@
+package src.Benchmark;
+
+import src.Board.BoardChange;
+import src.Board.BoardHistory;
+import src.Board.CircuitBoard;
+import src.Board.CustomBoard;
+import src.Component.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Change events: one per single edit with the right kind and cell, none for refused edits, and
+// exactly one coalesced event for clearGrid, nested batches and undo. Then the cost of a rotation
+// with and without a listener attached.
+public class ChangeEventCheck {
+    public static void main(String[] args) {
+        CustomBoard board = BoardGenerator.worstCase(30, 30);
+        board.addPreset(0, 0, () -> new Block("Block")); // refused: the Source is there
+        List<BoardChange> events = new ArrayList<>();
+        board.addListener(events::add);
+
+        expect(board.rotateComponent(5, 5), events, BoardChange.Kind.ROTATED, 5 * 30 + 5);
+        expect(board.removeComponent(5, 6), events, BoardChange.Kind.REMOVED, 5 * 30 + 6);
+        expect(board.placeComponent(5, 6, new Wire("Wire")), events, BoardChange.Kind.PLACED, 5 * 30 + 6);
+        if (board.placeComponent(5, 6, new Wire("Wire")) || board.removeComponent(0, 0) || !events.isEmpty()) {
+            throw new AssertionError("refused edits must not fire: " + events);
+        }
+
+        // Nested batches: one event when the outer one ends
+        board.batch(() -> {
+            board.rotateComponent(1, 1);
+            board.batch(() -> board.rotateComponent(2, 2));
+            if (!events.isEmpty()) throw new AssertionError("fired inside a batch");
+            board.rotateComponent(1, 1);
+        });
+        single(events, BoardChange.Kind.BATCH, 2);
+
+        board.clearGrid();
+        // every filled cell is emptied; the locked Source and Ground come back in the same event
+        single(events, BoardChange.Kind.CLEARED, 30 * 30);
+        if (events.size() > 0) throw new AssertionError("extra events");
+
+        BoardHistory history = new BoardHistory(board);
+        for (int c = 1; c < 20; c++) {
+            board.placeComponent(10, c, new Wire("Wire"));
+            history.record();
+        }
+        events.clear();
+        history.undo();
+        single(events, BoardChange.Kind.BATCH, 1);
+        while (history.undo()) { }
+        events.clear();
+        history.redo();
+        single(events, BoardChange.Kind.BATCH, 1);
+        System.out.println("change events: ok");
+
+        cost();
+    }
+
+    private static void expect(boolean done, List<BoardChange> events, BoardChange.Kind kind, int cell) {
+        if (!done) throw new AssertionError(kind + " refused");
+        BoardChange change = single(events, kind, 1);
+        if (change.getCells()[0] != cell || change.isBatch()) throw new AssertionError(change + " at " + cell);
+    }
+
+    private static BoardChange single(List<BoardChange> events, BoardChange.Kind kind, int size) {
+        if (events.size() != 1) throw new AssertionError("expected one " + kind + " event, got " + events);
+        BoardChange change = events.remove(0);
+        if (change.getKind() != kind || change.size() != size) throw new AssertionError("expected " + kind + " of " + size + ", got " + change);
+        return change;
+    }
+
+    private static void cost() {
+        Bench bench = new Bench(300, 1000);
+        CircuitBoard quiet = BoardGenerator.worstCase(100, 100);
+        bench.run("rotate, no listener", () -> quiet.rotateComponent(50, 50));
+        CircuitBoard heard = BoardGenerator.worstCase(100, 100);
+        int[] seen = new int[1];
+        heard.addListener(change -> seen[0]++);
+        bench.run("rotate, one listener", () -> heard.rotateComponent(50, 50));
+    }
+}
@@ -0,0 +1,80 @@
+package src.Benchmark;
+
+import src.Board.BoardSnapshot;
+import src.Board.CircuitBoard;
+import src.Board.EvaluationCache;
+import src.Component.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One writer edits and publishes while reader threads analyse getPublished() snapshots. Each
+// snapshot a reader sees must be whole: a private copy of it hashes to the snapshot's own state
+// hash, and its cached evaluation agrees with a fresh one. Also reports the writer's cost per
+// edit with and without readers, which should not differ much since readers never lock.
+// Usage: ConcurrentReadCheck [readers] [millis]
+public class ConcurrentReadCheck {
+    public static void main(String[] args) throws Exception {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+
+        double alone = write(0, millis);
+        double shared = write(readers, millis);
+        System.out.printf("writer: %.1f us/edit alone, %.1f us/edit with %d readers%n", alone, shared, readers);
+    }
+
+    private static double write(int readerCount, long millis) throws InterruptedException {
+        CircuitBoard board = BoardGenerator.worstCase(60, 60);
+        EvaluationCache cache = new EvaluationCache();
+        board.setEvaluationCache(cache);
+        board.publish();
+
+        AtomicLong reads = new AtomicLong();
+        Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[readerCount];
+        for (int t = 0; t < readerCount; t++) {
+            threads[t] = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    BoardSnapshot snapshot = board.getPublished();
+                    CircuitBoard copy = snapshot.toBoard();
+                    if (copy.getStateHash() != snapshot.getStateHash()) {
+                        throw new AssertionError("torn snapshot: copy hashes differently");
+                    }
+                    boolean valid = snapshot.evaluate(cache).isValid();
+                    if (valid != copy.hasValidPath()) throw new AssertionError("cached evaluation disagrees");
+                    reads.incrementAndGet();
+                }
+            });
+            threads[t].setUncaughtExceptionHandler((thread, e) -> failure[0] = e);
+            threads[t].start();
+        }
+
+        Random random = new Random(readerCount);
+        long edits = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000L;
+        while (System.nanoTime() < end) {
+            int r = random.nextInt(board.getRows());
+            int c = random.nextInt(board.getCols());
+            switch (random.nextInt(3)) {
+                case 0: board.rotateComponent(r, c); break;
+                case 1: board.removeComponent(r, c); break;
+                default: board.placeComponent(r, c, new Resistor("Resistor", 1 + random.nextInt(10))); break;
+            }
+            board.publish();
+            edits++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join();
+        }
+        if (failure[0] != null) throw new AssertionError(failure[0]);
+        if (readerCount > 0) {
+            if (reads.get() == 0) throw new AssertionError("readers never ran");
+            System.out.println(readerCount + " readers checked " + reads.get() + " snapshots during " + edits + " edits: ok");
+        }
+        return elapsed / 1e3 / edits;
+    }
+}
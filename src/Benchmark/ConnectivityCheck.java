@@ -0,0 +1,68 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Component.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Differential check of the path searches (union-find, bitboard flood fill, BFS, scratch BFS) on
+// random boards with random edits; they must agree on the exact set of components.
+// Object storage only, so components can be compared by identity.
+// Usage: ConnectivityCheck [boards per size]
+public class ConnectivityCheck {
+    private static final int[][] SIZES = {{1, 2}, {3, 7}, {5, 6}, {8, 8}, {7, 63}, {9, 64}, {6, 65}, {4, 130}, {40, 40}};
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int checked = 0;
+        int connected = 0;
+
+        for (int[] size : SIZES) {
+            for (int seed = 0; seed < boards; seed++) {
+                // Odd seeds start from the serpentine board so most states actually connect
+                CircuitBoard board = seed % 2 == 0 || size[1] < 2
+                        ? BoardGenerator.random(size[0], size[1], seed)
+                        : BoardGenerator.worstCase(size[0], size[1]);
+                Random random = new Random(seed);
+                for (int edit = 0; edit < 8; edit++) {
+                    if (edit > 0) {
+                        int r = random.nextInt(size[0]);
+                        int c = random.nextInt(size[1]);
+                        if (random.nextInt(3) == 0) board.removeComponent(r, c);
+                        else board.rotateComponent(r, c);
+                    }
+                    List<Component> path = board.getValidPath();
+                    compare("floodValidPath", path, board.floodValidPath(), size, seed);
+                    compare("traceValidPath", path, board.traceValidPath(), size, seed);
+                    compare("searchValidPath", path, board.searchValidPath().toList(), size, seed);
+                    if (board.hasValidPath() != (path != null) || board.evaluate().isValid() != (path != null)) {
+                        throw new IllegalStateException("hasValidPath/evaluate differ from getValidPath on " + size[0] + "x" + size[1]
+                                + " seed " + seed);
+                    }
+                    checked++;
+                    if (path != null) connected++;
+                }
+            }
+        }
+        System.out.printf("%d board states agree (%d connected)%n", checked, connected);
+    }
+
+    private static void compare(String name, List<Component> expected, List<Component> actual,
+                                int[] size, int seed) {
+        if (expected == null && actual == null) return;
+        if (expected == null || actual == null || expected.size() != actual.size() || !cells(expected).equals(cells(actual))) {
+            throw new IllegalStateException(name + " differs from getValidPath on " + size[0] + "x" + size[1]
+                    + " seed " + seed);
+        }
+    }
+
+    private static Set<Component> cells(List<Component> path) {
+        Set<Component> cells = Collections.newSetFromMap(new IdentityHashMap<>());
+        cells.addAll(path);
+        return cells;
+    }
+}
@@ -0,0 +1,44 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Board.NodalAnalysisEngine;
+import src.Board.Netlist;
+import src.Board.SeriesParallelEngine;
+
+// Compares the series-parallel reducer with the nodal solver on random lattices.
+// Usage: EngineCheck [boards per size]
+public class EngineCheck {
+    private static final int[][] SIZES = {{2, 2}, {2, 3}, {3, 3}, {3, 5}, {4, 4}, {6, 6}};
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        NodalAnalysisEngine nodal = new NodalAnalysisEngine();
+        int seriesParallel = 0;
+        int bridges = 0;
+
+        for (int[] size : SIZES) {
+            for (int seed = 0; seed < boards; seed++) {
+                CircuitBoard board = BoardGenerator.lattice(size[0], size[1], seed, 0.3 + 0.6 * (seed % 4) / 3.0);
+                Netlist netlist = Netlist.compile(board);
+                for (int kind : new int[] {Netlist.RESISTOR, Netlist.CAPACITOR}) {
+                    double reduced = SeriesParallelEngine.reduce(netlist, kind);
+                    if (Double.isNaN(reduced)) {
+                        bridges++;
+                        continue;
+                    }
+                    seriesParallel++;
+                    double expected = kind == Netlist.RESISTOR
+                            ? nodal.calculateTotalResistance(netlist) : nodal.calculateTotalCapacitance(netlist);
+                    double actual = kind == Netlist.RESISTOR
+                            ? (reduced == 0 || Double.isInfinite(reduced) ? 0 : 1 / reduced)
+                            : (Double.isInfinite(reduced) ? 0 : reduced);
+                    if (Math.abs(actual - expected) > 1e-6 * Math.max(1, Math.abs(expected))) {
+                        throw new IllegalStateException("Mismatch on " + size[0] + "x" + size[1] + " seed " + seed
+                                + (kind == Netlist.RESISTOR ? " R " : " C ") + actual + " vs " + expected);
+                    }
+                }
+            }
+        }
+        System.out.printf("%d analyses agree, %d left to the nodal solver%n", seriesParallel, bridges);
+    }
+}
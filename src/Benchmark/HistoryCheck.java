@@ -0,0 +1,169 @@
+package src.Benchmark;
+
+import src.Board.BoardFormat;
+import src.Board.BoardHistory;
+import src.Board.BoardSnapshot;
+import src.Board.CircuitBoard;
+import src.Board.CustomBoard;
+import src.Board.Evaluation;
+import src.Board.SeriesBoard;
+import src.Component.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Undo/redo check: random edits are recorded, then random undo/redo walks must land on exactly
+// the recorded states (cells and state hash). Meanwhile a second thread evaluates copies of old
+// snapshots and compares them with the evaluations made at record time. Finally reports the
+// cost of one edit-and-record step on a large board.
+// Usage: HistoryCheck [edits per board]
+public class HistoryCheck {
+    private static final int[][] SIZES = {{3, 7}, {8, 8}, {9, 65}, {40, 40}};
+
+    public static void main(String[] args) throws Exception {
+        int edits = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int checked = 0;
+
+        for (int[] size : SIZES) {
+            for (int seed = 0; seed < 4; seed++) {
+                CircuitBoard board = size[0] == 3 ? new SeriesBoard() : BoardGenerator.worstCase(size[0], size[1]);
+                checked += check(board, edits, seed);
+            }
+        }
+        System.out.println(checked + " undo/redo moves checked: ok");
+
+        cost(1000, 1000, 20_000);
+    }
+
+    private static int check(CircuitBoard board, int edits, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        BoardHistory history = new BoardHistory(board, edits + 1);
+        List<String> states = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        List<BoardSnapshot> snapshots = new ArrayList<>();
+        List<Evaluation> evaluations = new ArrayList<>();
+        record(board, history, states, hashes, snapshots, evaluations);
+
+        // Reader thread: evaluates private copies of snapshots while the board keeps changing
+        AtomicInteger read = new AtomicInteger();
+        List<BoardSnapshot> shared = java.util.Collections.synchronizedList(snapshots);
+        List<Evaluation> expected = java.util.Collections.synchronizedList(evaluations);
+        Thread reader = new Thread(() -> {
+            Random pick = new Random(seed);
+            while (!Thread.currentThread().isInterrupted()) {
+                int i = pick.nextInt(shared.size());
+                Evaluation evaluation = shared.get(i).toBoard().evaluate();
+                Evaluation recorded = expected.get(i);
+                if (evaluation.isValid() != recorded.isValid()
+                        || Math.abs(evaluation.getTau() - recorded.getTau()) > 1e-9 * Math.max(1, recorded.getTau())) {
+                    throw new AssertionError("snapshot " + i + " evaluates to " + evaluation + ", recorded " + recorded);
+                }
+                read.incrementAndGet();
+            }
+        });
+        final Throwable[] failure = new Throwable[1];
+        reader.setUncaughtExceptionHandler((thread, e) -> failure[0] = e);
+        reader.start();
+
+        for (int edit = 0; edit < edits; edit++) {
+            if (!randomEdit(board, random)) continue;
+            record(board, history, states, hashes, snapshots, evaluations);
+        }
+
+        int position = states.size() - 1;
+        int moves = 0;
+        for (int step = 0; step < edits * 2; step++) {
+            if (random.nextInt(3) > 0 ? history.undo() : history.redo()) moves++;
+            else continue;
+            position = history.getUndoCount();
+            compare(board, states.get(position), hashes.get(position), position);
+        }
+        // A fresh edit after undoing drops the redo steps
+        while (history.getUndoCount() > states.size() / 2) history.undo();
+        if (randomEdit(board, random)) {
+            history.record();
+            if (history.canRedo()) throw new AssertionError("redo steps kept after an edit");
+        }
+
+        // Give the reader a turn on machines with few cores
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (read.get() == 0 && failure[0] == null && System.nanoTime() < deadline) Thread.sleep(1);
+        reader.interrupt();
+        reader.join();
+        if (failure[0] != null) throw new AssertionError(failure[0]);
+        if (read.get() == 0) throw new AssertionError("reader never ran");
+        return moves;
+    }
+
+    private static void record(CircuitBoard board, BoardHistory history, List<String> states, List<Long> hashes,
+                               List<BoardSnapshot> snapshots, List<Evaluation> evaluations) {
+        history.record();
+        states.add(BoardFormat.format("state", board));
+        hashes.add(board.getStateHash());
+        evaluations.add(board.evaluate());
+        snapshots.add(history.getCurrent());
+        if (history.getCurrent().getStateHash() != board.getStateHash()) throw new AssertionError("snapshot hash");
+    }
+
+    private static void compare(CircuitBoard board, String state, long hash, int position) {
+        String actual = BoardFormat.format("state", board);
+        if (!actual.equals(state)) throw new AssertionError("state " + position + "\n" + state + "---\n" + actual);
+        if (board.getStateHash() != hash) throw new AssertionError("hash of state " + position);
+    }
+
+    private static boolean randomEdit(CircuitBoard board, Random random) {
+        int r = random.nextInt(board.getRows());
+        int c = random.nextInt(board.getCols());
+        switch (random.nextInt(3)) {
+            case 0:
+                return board.rotateComponent(r, c);
+            case 1:
+                return board.removeComponent(r, c);
+            default:
+                Component piece;
+                switch (random.nextInt(4)) {
+                    case 0: piece = new Resistor("Resistor", 1 + random.nextInt(10)); break;
+                    case 1: piece = new Capacitor("Capacitor", 0.1 * (1 + random.nextInt(10))); break;
+                    case 2: piece = new CornerWire("Corner"); break;
+                    default: piece = new Wire("Wire"); break;
+                }
+                return board.placeComponent(r, c, piece);
+        }
+    }
+
+    // One rotation plus a recorded step per operation; memory is what the history keeps alive
+    private static void cost(int rows, int cols, int steps) {
+        CustomBoard board = BoardGenerator.worstCase(rows, cols, true);
+        BoardHistory history = new BoardHistory(board, steps);
+        Random random = new Random(1);
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long allocatedBefore = Bench.allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            board.rotateComponent(random.nextInt(rows), random.nextInt(cols));
+            history.record();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Bench.allocatedBytes() - allocatedBefore;
+        System.gc();
+        long retained = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        int undone = 0;
+        while (history.undo()) undone++;
+        long undoing = System.nanoTime() - start;
+
+        System.out.printf("%dx%d board, %d steps: %.1f us/step, %.0f B allocated/step, %.0f B retained/step, undo %.1f us/step%n",
+                rows, cols, steps, elapsed / 1e3 / steps, (double) allocated / steps, (double) retained / steps,
+                undoing / 1e3 / Math.max(1, undone));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,92 @@
+package src.Benchmark;
+
+import src.Board.CustomBoard;
+import src.Board.Evaluation;
+import src.Component.ComponentType;
+import src.Level.Level;
+import src.Level.LevelCodec;
+import src.Level.LevelGenerator;
+import src.Solver.AutoSolver;
+import src.Solver.Solution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Generated levels: the same seed gives the same bytes whether made alone or in a parallel
+// batch, every level starts open and its bundled solution wins, small levels are also solved
+// by the AutoSolver on its own, and the odd sizes (one row, five columns, large) work.
+// Then generation throughput per size on all cores.
+// Usage: LevelGeneratorCheck [levels per size]
+public class LevelGeneratorCheck {
+    private static final int[][] SIZES = {{1, 5}, {3, 7}, {5, 6}, {10, 10}, {40, 40}, {1, 60}, {60, 5}, {300, 300}};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        int checked = 0;
+        int solvedBySearch = 0;
+        for (int[] size : SIZES) {
+            LevelGenerator generator = new LevelGenerator(size[0], size[1], pool);
+            int levels = size[0] * size[1] > 10_000 ? 5 : count;
+            List<LevelGenerator.Generated> batch = generator.generateAll(1000, levels);
+            for (int i = 0; i < levels; i++) {
+                LevelGenerator.Generated generated = batch.get(i);
+                if (generated.getSeed() != 1000 + i) throw new AssertionError("seed order");
+                byte[] alone = LevelCodec.encode(generator.generate(1000 + i));
+                if (!Arrays.equals(alone, LevelCodec.encode(generated.getLevel()))) {
+                    throw new AssertionError("seed " + (1000 + i) + " differs between batch and single generation");
+                }
+                check(generated);
+                if (size[0] * size[1] <= 100 && i < 20) {
+                    Solution solution = new AutoSolver().solve(new CustomBoard(generated.getLevel()));
+                    if (solution == null) throw new AssertionError(generated.getLevel() + " has no solution the AutoSolver finds");
+                    solvedBySearch++;
+                }
+                checked++;
+            }
+        }
+        expectRejected(0, 10);
+        expectRejected(5, 4);
+        System.out.println(checked + " levels checked, " + solvedBySearch + " also solved by search: ok");
+
+        for (int[] size : new int[][] {{10, 10}, {40, 40}, {200, 200}}) {
+            LevelGenerator generator = new LevelGenerator(size[0], size[1], pool);
+            int levels = 200_000 / (size[0] * size[1]) + 50;
+            generator.generateAll(0, levels / 4); // warm-up
+            long start = System.nanoTime();
+            generator.generateAll(1, levels);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%dx%d: %.0f levels per minute on %d threads%n",
+                    size[0], size[1], levels / seconds * 60, pool.getParallelism());
+        }
+        pool.shutdown();
+    }
+
+    private static void check(LevelGenerator.Generated generated) {
+        Level level = generated.getLevel();
+        Evaluation start = new CustomBoard(level).evaluate();
+        if (start.isValid()) throw new AssertionError(level + " is already closed");
+        if (level.getMaxResistors() < 1 || level.getMaxCapacitors() < 1) throw new AssertionError(level + " limits");
+
+        CustomBoard solved = new CustomBoard(generated.getSolved());
+        Evaluation end = solved.evaluate();
+        if (!end.isValid() || end.getResistance() <= 0 || Math.abs(5 * end.getTau() - 5) >= 0.1) {
+            throw new AssertionError(level + " solution evaluates to " + end);
+        }
+        if (solved.countComponents(ComponentType.RESISTOR) > level.getMaxResistors()
+                || solved.countComponents(ComponentType.CAPACITOR) > level.getMaxCapacitors()) {
+            throw new AssertionError(level + " solution breaks the limits");
+        }
+    }
+
+    private static void expectRejected(int rows, int cols) {
+        try {
+            new LevelGenerator(rows, cols);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError(rows + "x" + cols + " accepted");
+    }
+}
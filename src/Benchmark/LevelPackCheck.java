@@ -0,0 +1,111 @@
+package src.Benchmark;
+
+import src.Board.BoardFormat;
+import src.Board.CircuitBoard;
+import src.Board.CustomBoard;
+import src.Board.ParallelBoard;
+import src.Board.SeriesBoard;
+import src.Component.*;
+import src.Level.Level;
+import src.Level.LevelPack;
+import src.Solver.AutoSolver;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Writes a pack of generated levels, maps it back and checks that every level sampled decodes
+// to the board it was made from (also after clearGrid). Reports size, open time and decode time.
+// Usage: LevelPackCheck [levels]
+public class LevelPackCheck {
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<CircuitBoard> boards = new ArrayList<>();
+        List<Level> levels = new ArrayList<>();
+        boards.add(new SeriesBoard());
+        boards.add(new ParallelBoard());
+        CircuitBoard solved = new ParallelBoard(); // placed pieces, rotated and valued
+        new AutoSolver().solve(solved).applyTo(solved);
+        boards.add(solved);
+        for (int i = boards.size(); i < count; i++) boards.add(sparse(i));
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < boards.size(); i++) {
+            levels.add(Level.of("level-" + (i + 1), boards.get(i)));
+            texts.add(BoardFormat.format("level-" + (i + 1), boards.get(i)));
+        }
+
+        Path path = Files.createTempFile("levels", ".cpk");
+        try {
+            long start = System.nanoTime();
+            LevelPack.write(path, levels);
+            long written = System.nanoTime() - start;
+            long size = Files.size(path);
+
+            start = System.nanoTime();
+            LevelPack pack = LevelPack.open(path);
+            long opened = System.nanoTime() - start;
+            if (pack.size() != levels.size()) throw new AssertionError("count " + pack.size());
+
+            Random random = new Random(1);
+            int samples = Math.min(count, 10_000);
+            long decoding = 0;
+            for (int s = 0; s < samples; s++) {
+                int i = s < 3 ? s : random.nextInt(count);
+                long t = System.nanoTime();
+                Level level = pack.get(i);
+                decoding += System.nanoTime() - t;
+
+                CustomBoard board = new CustomBoard(level);
+                check(texts.get(i), BoardFormat.format(level.getName(), board), i);
+                if (board.getMaxResistors() != boards.get(i).getMaxResistors()
+                        || board.getMaxCapacitors() != boards.get(i).getMaxCapacitors()) {
+                    throw new AssertionError("limits of level " + i);
+                }
+                // Only the locked pieces come back
+                board.clearGrid();
+                boards.get(i).clearGrid();
+                check(BoardFormat.format(level.getName(), boards.get(i)), BoardFormat.format(level.getName(), board), i);
+                if (!pack.getName(i).equals(level.getName())) throw new AssertionError("name of level " + i);
+            }
+
+            System.out.printf("%d levels, %d bytes (%.1f B/level), written in %.1f ms%n",
+                    count, size, (double) size / count, written / 1e6);
+            System.out.printf("open %.3f ms, decode %.2f us/level over %d sampled levels: ok%n",
+                    opened / 1e6, decoding / 1e3 / samples, samples);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void check(String expected, String actual, int index) {
+        if (!expected.equals(actual)) throw new AssertionError("level " + index + "\n" + expected + "---\n" + actual);
+    }
+
+    // Level-like board: runs of blocks, locked Source, Bulb and Ground, mostly empty otherwise
+    private static CircuitBoard sparse(long seed) {
+        Random random = new Random(seed);
+        int rows = 3 + random.nextInt(8);
+        int cols = 4 + random.nextInt(8);
+        CustomBoard board = new CustomBoard(rows, cols, 1 + random.nextInt(3), 1 + random.nextInt(3));
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (random.nextInt(3) == 0) {
+                    int run = 1 + random.nextInt(3);
+                    for (int k = 0; k < run && c < cols; k++, c++) board.addPreset(r, c, () -> new Block("Block"));
+                }
+            }
+        }
+        double voltage = 5.0 + random.nextInt(10);
+        board.addPreset(0, 0, () -> lock(new Source("Source", voltage)));
+        board.addPreset(rows - 1, cols - 1, () -> lock(new Destination("Ground")));
+        board.addPreset(0, cols - 1, () -> lock(new Bulb("Bulb")));
+        return board;
+    }
+
+    private static Component lock(Component component) {
+        component.setLocked(true);
+        return component;
+    }
+}
@@ -0,0 +1,152 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Component.Bulb;
+import src.Metrics.LogSink;
+import src.Metrics.Metrics;
+import src.Metrics.Timer;
+import src.Metrics.TimerStats;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Metrics layer: percentiles of a known distribution, the registry read back over JMX, timed
+// operations showing up in a JFR recording (and allocating nothing outside one), and the log
+// sink keeping order and never blocking.
+// Then what the instrumentation costs on a path search and on a Bulb update.
+public class MetricsCheck {
+    public static void main(String[] args) throws Exception {
+        percentiles();
+        jmx();
+        flightRecorder();
+        allocationFree();
+        logSink();
+        cost();
+    }
+
+    private static void percentiles() {
+        Timer timer = Metrics.timer("check.uniform");
+        for (long nanos = 1; nanos <= 100_000; nanos++) timer.record(nanos);
+        TimerStats stats = timer.snapshot();
+        if (stats.getCount() != 100_000 || stats.getMaxNanos() != 100_000) throw new AssertionError(stats);
+        close("p50", stats.getP50Nanos(), 50_000);
+        close("p99", stats.getP99Nanos(), 99_000);
+        System.out.println("percentiles: " + stats + ": ok");
+    }
+
+    private static void close(String what, long actual, long expected) {
+        if (Math.abs(actual - expected) > expected / 16) throw new AssertionError(what + " " + actual + ", expected " + expected);
+    }
+
+    private static void jmx() throws Exception {
+        Metrics.registerMBean();
+        Metrics.registerMBean(); // second call is a no-op
+        CircuitBoard board = BoardGenerator.worstCase(40, 40);
+        for (int i = 0; i < 10; i++) board.hasValidPath();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        TabularData timers = (TabularData) server.getAttribute(name, "Timers");
+        CompositeData path = (CompositeData) timers.get(new Object[] {"path"}).get("value");
+        if ((Long) path.get("count") < 10) throw new AssertionError("path count over JMX: " + path);
+
+        server.setAttribute(name, new Attribute("Enabled", false));
+        long before = Metrics.PATH.snapshot().getCount();
+        board.hasValidPath();
+        if (Metrics.PATH.snapshot().getCount() != before) throw new AssertionError("recorded while switched off");
+        server.setAttribute(name, new Attribute("Enabled", true));
+        server.invoke(name, "reset", null, null);
+        if (Metrics.PATH.snapshot().getCount() != 0) throw new AssertionError("reset over JMX");
+        System.out.println("jmx: path count " + path.get("count") + ", switch and reset: ok");
+    }
+
+    private static void flightRecorder() throws Exception {
+        Path file = Files.createTempFile("metrics", ".jfr");
+        CircuitBoard board = BoardGenerator.worstCase(40, 40);
+        try (Recording recording = new Recording()) {
+            recording.enable("circuit.Operation").withThreshold(java.time.Duration.ZERO);
+            recording.start();
+            for (int i = 0; i < 25; i++) board.hasValidPath();
+            board.calculateTotalResistance();
+            recording.stop();
+            recording.dump(file);
+        }
+        int paths = 0;
+        int resistances = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!event.getEventType().getName().equals("circuit.Operation")) continue;
+            String operation = event.getString("operation");
+            if (operation.equals("path")) paths++;
+            if (operation.equals("resistance")) resistances++;
+        }
+        Files.delete(file);
+        if (paths != 25 || resistances != 1) throw new AssertionError("jfr events: " + paths + " path, " + resistances + " resistance");
+        System.out.println("jfr: " + paths + " path and " + resistances + " resistance events: ok");
+    }
+
+    private static void allocationFree() {
+        Timer timer = Metrics.timer("allocation");
+        for (int i = 0; i < 100_000; i++) timer.record(i);
+
+        long probe = Bench.allocatedBytes();
+        long overhead = Bench.allocatedBytes() - probe;
+        long before = Bench.allocatedBytes();
+        for (int i = 0; i < 100_000; i++) timer.record(i);
+        long allocated = Bench.allocatedBytes() - before - overhead;
+        if (allocated != 0) throw new AssertionError("Timer.record allocated " + allocated + " bytes with no recording");
+        System.out.println("record without a recording: 0 bytes: ok");
+    }
+
+    private static void logSink() throws Exception {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        LogSink.setOutput(new PrintStream(captured, true, StandardCharsets.UTF_8));
+        LogSink.setEnabled(true);
+        for (int i = 0; i < 1000; i++) LogSink.log("line " + i);
+        LogSink.flush();
+        String[] lines = captured.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        if (lines.length != 1000) throw new AssertionError(lines.length + " lines written");
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].equals("line " + i)) throw new AssertionError("line " + i + " is " + lines[i]);
+        }
+
+        // A flood must not stall the caller: what does not fit is dropped
+        long start = System.nanoTime();
+        int flood = 200_000;
+        for (int i = 0; i < flood; i++) LogSink.log("flood");
+        long elapsed = System.nanoTime() - start;
+        LogSink.flush();
+        LogSink.setEnabled(false);
+        LogSink.setOutput(System.out);
+        System.out.printf("log sink: ordered, flood of %d at %.0f ns/line, %d dropped: ok%n",
+                flood, (double) elapsed / flood, LogSink.getDropped());
+    }
+
+    private static void cost() {
+        Bench bench = new Bench(300, 1000);
+        CircuitBoard board = BoardGenerator.worstCase(100, 100);
+        Metrics.setEnabled(false);
+        bench.run("hasValidPath, metrics off", board::hasValidPath);
+        Metrics.setEnabled(true);
+        bench.run("hasValidPath, metrics on", board::hasValidPath);
+
+        Bulb bulb = new Bulb("Bulb");
+        bulb.setCurrent(0.5);
+        bench.run("Bulb.calculateAttributes, log off", () -> {
+            bulb.calculateAttributes();
+            return bulb.isLit();
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Component.*;
+import src.Utils.ConnectionLogic;
+
+// Compares neighbour checks with the port mask table against the old boolean[] per call.
+// Usage: PortBenchmark [size]
+public class PortBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        CircuitBoard board = BoardGenerator.random(size, size, 42);
+
+        for (int round = 0; round < 3; round++) {
+            measure("legacy boolean[] ports", board, true);
+            measure("cached port mask     ", board, false);
+        }
+    }
+
+    private static void measure(String label, CircuitBoard board, boolean legacy) {
+        long allocatedBefore = Bench.allocatedBytes();
+        long start = System.nanoTime();
+        int connections = 0;
+        int checks = 0;
+
+        for (int iteration = 0; iteration < 10; iteration++) {
+            for (int r = 0; r < board.getRows(); r++) {
+                for (int c = 0; c < board.getCols(); c++) {
+                    Component current = board.getComponent(r, c);
+                    Component right = board.getComponent(r, c + 1);
+                    Component bottom = board.getComponent(r + 1, c);
+                    if (legacy) {
+                        if (legacyConnected(current, right, 1)) connections++;
+                        if (legacyConnected(current, bottom, 2)) connections++;
+                    } else {
+                        if (ConnectionLogic.areConnected(current, right, 0, 1)) connections++;
+                        if (ConnectionLogic.areConnected(current, bottom, 1, 0)) connections++;
+                    }
+                    checks += 2;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = Bench.allocatedBytes() - allocatedBefore;
+        System.out.printf("%s: %6.1f ns/check, %8.2f MB allocated, %6.2f B/check (%d connected)%n",
+                label, (double) elapsed / checks, allocated / 1e6, (double) allocated / checks, connections);
+    }
+
+    // The pre-mask implementation, kept here as the baseline
+    private static boolean legacyConnected(Component source, Component target, int srcDirIndex) {
+        if (source == null || target == null) return false;
+        boolean[] srcPorts = legacyPorts(source);
+        boolean[] tgtPorts = legacyPorts(target);
+        return srcPorts[srcDirIndex] && tgtPorts[(srcDirIndex + 2) % 4];
+    }
+
+    private static boolean[] legacyPorts(Component c) {
+        boolean[] ports = {false, false, false, false};
+        int rot = c.getRotationDegree() % 360;
+
+        if (c instanceof CornerWire) {
+            if (rot == 0)        { ports[1]=true; ports[2]=true; }
+            else if (rot == 90)  { ports[2]=true; ports[3]=true; }
+            else if (rot == 180) { ports[3]=true; ports[0]=true; }
+            else if (rot == 270) { ports[0]=true; ports[1]=true; }
+        } else if (c instanceof Source) {
+            ports[(rot / 90 + 1) % 4] = true;
+        } else if (c instanceof Destination || c instanceof Bulb) {
+            ports[0]=true; ports[1]=true; ports[2]=true; ports[3]=true;
+        } else if (c instanceof TWire) {
+            ports[(rot / 90 + 1) % 4] = true; ports[(rot / 90 + 2) % 4] = true; ports[(rot / 90 + 3) % 4] = true;
+        } else if (c instanceof Wire || c instanceof Resistor || c instanceof Capacitor) {
+            if (rot == 0 || rot == 180) { ports[1] = true; ports[3] = true; }
+            else { ports[0] = true; ports[2] = true; }
+        }
+        return ports;
+    }
+}
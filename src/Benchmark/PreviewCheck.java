@@ -0,0 +1,121 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Board.Evaluation;
+import src.Simulation.Preview;
+import src.Simulation.PreviewEvaluator;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Live preview behaviour: a burst of edits is coalesced into a few evaluations whose last result
+// matches the final board, and an evaluation still running on a large board is abandoned when a
+// newer edit arrives, inside the solver rather than after it. Also reports how long submit()
+// takes on the editing thread.
+public class PreviewCheck {
+    public static void main(String[] args) throws Exception {
+        coalescing();
+        cancellation();
+        solverCancellation();
+    }
+
+    private static void coalescing() throws InterruptedException {
+        CircuitBoard board = BoardGenerator.worstCase(100, 100);
+        AtomicReference<Preview> last = new AtomicReference<>();
+        PreviewEvaluator evaluator = new PreviewEvaluator(last::set, 20);
+
+        Random random = new Random(1);
+        int edits = 500;
+        long submitting = 0;
+        for (int i = 0; i < edits; i++) {
+            board.rotateComponent(random.nextInt(100), random.nextInt(100));
+            board.publish();
+            long start = System.nanoTime();
+            evaluator.submit(board.getPublished());
+            submitting += System.nanoTime() - start;
+            Thread.sleep(i % 50 == 49 ? 60 : 1); // bursts with a pause after every 50 edits
+        }
+
+        Evaluation expected = board.evaluate();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((last.get() == null || !evaluator.isCurrent(last.get()) || !last.get().isComplete())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Preview result = last.get();
+        if (result == null || !evaluator.isCurrent(result) || !result.isComplete()) throw new AssertionError("no final preview");
+        if (result.isOpen() == expected.isValid() || Math.abs(result.getTau() - expected.getTau()) > 1e-9) {
+            throw new AssertionError("final preview " + result.getTau() + " vs " + expected);
+        }
+        if (evaluator.getCompletedCount() > edits / 10) throw new AssertionError("edits not coalesced");
+        System.out.printf("coalescing: %d edits -> %d evaluations, %.1f us per submit: ok%n",
+                edits, evaluator.getCompletedCount(), submitting / 1e3 / edits);
+        evaluator.shutdown();
+    }
+
+    private static void cancellation() throws InterruptedException {
+        CircuitBoard board = BoardGenerator.worstCase(1000, 1000, true);
+        CountDownLatch partial = new CountDownLatch(1);
+        AtomicReference<Preview> last = new AtomicReference<>();
+        PreviewEvaluator evaluator = new PreviewEvaluator(preview -> {
+            last.set(preview);
+            if (!preview.isComplete()) partial.countDown();
+        }, 0);
+
+        board.publish();
+        evaluator.submit(board.getPublished());
+        if (!partial.await(30, TimeUnit.SECONDS)) throw new AssertionError("no partial preview");
+        // R and C of the first state are being worked out now; a new edit must supersede them
+        board.rotateComponent(0, 0);
+        board.publish();
+        evaluator.submit(board.getPublished());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while ((last.get() == null || !evaluator.isCurrent(last.get())) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (evaluator.getCancelledCount() == 0) throw new AssertionError("running evaluation not cancelled");
+        if (last.get() == null || !evaluator.isCurrent(last.get())) throw new AssertionError("no preview of the last edit");
+        System.out.printf("cancellation: %d superseded, last preview current (open: %b): ok%n",
+                evaluator.getCancelledCount(), last.get().isOpen());
+        evaluator.shutdown();
+    }
+
+    // A bridge lattice goes to the nodal solver; a newer edit must stop its iterations, so the
+    // next preview arrives long before the lattice would have been solved
+    private static void solverCancellation() throws InterruptedException {
+        CircuitBoard lattice = BoardGenerator.lattice(300, 300, 1, 0.9);
+        lattice.publish();
+        long start = System.nanoTime();
+        lattice.getPublished().toBoard().evaluate();
+        long full = System.nanoTime() - start;
+
+        CircuitBoard small = BoardGenerator.worstCase(10, 10);
+        small.publish();
+        CountDownLatch partial = new CountDownLatch(1);
+        AtomicReference<Preview> last = new AtomicReference<>();
+        PreviewEvaluator evaluator = new PreviewEvaluator(preview -> {
+            last.set(preview);
+            if (!preview.isComplete()) partial.countDown();
+        }, 0);
+
+        evaluator.submit(lattice.getPublished());
+        if (!partial.await(30, TimeUnit.SECONDS)) throw new AssertionError("no partial preview");
+        start = System.nanoTime();
+        evaluator.submit(small.getPublished());
+        long deadline = start + TimeUnit.SECONDS.toNanos(30);
+        while ((last.get() == null || !evaluator.isCurrent(last.get()) || !last.get().isComplete())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long latency = System.nanoTime() - start;
+        if (last.get() == null || !evaluator.isCurrent(last.get())) throw new AssertionError("no preview of the last edit");
+        if (evaluator.getCancelledCount() == 0) throw new AssertionError("running solve not cancelled");
+        if (latency > full / 2) throw new AssertionError("solve ran on: " + latency / 1e6 + " ms of " + full / 1e6);
+        System.out.printf("solver cancellation: next preview after %.1f ms (full solve %.1f ms): ok%n",
+                latency / 1e6, full / 1e6);
+        evaluator.shutdown();
+    }
+}
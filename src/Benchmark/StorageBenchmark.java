@@ -0,0 +1,53 @@
+package src.Benchmark;
+
+import src.Board.CircuitBoard;
+import src.Component.Component;
+
+import java.util.List;
+
+// Retained heap per cell of the object and packed cell storage, plus a check that both
+// backends see the same circuit. Usage: StorageBenchmark [size]
+public class StorageBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long cells = (long) size * size;
+
+        for (int round = 0; round < 2; round++) {
+            long objectBytes = retained(() -> BoardGenerator.random(size, size, 42, false));
+            long packedBytes = retained(() -> BoardGenerator.random(size, size, 42, true));
+            System.out.printf("%dx%d object: %.1f B/cell, packed: %.1f B/cell (%.1fx)%n", size, size,
+                    (double) objectBytes / cells, (double) packedBytes / cells, (double) objectBytes / packedBytes);
+        }
+
+        CircuitBoard object = BoardGenerator.worstCase(size, size, false);
+        CircuitBoard packed = BoardGenerator.worstCase(size, size, true);
+        List<Component> objectPath = object.getValidPath();
+        List<Component> packedPath = packed.getValidPath();
+        System.out.printf("worst case path: object %s, packed %s%n",
+                objectPath == null ? "open" : objectPath.size(), packedPath == null ? "open" : packedPath.size());
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (object.getPortMask(r, c) != packed.getPortMask(r, c)) {
+                    throw new IllegalStateException("Port mismatch at " + r + "," + c);
+                }
+            }
+        }
+    }
+
+    // Heap still reachable from the board after it is built
+    private static long retained(java.util.function.Supplier<CircuitBoard> build) {
+        long before = usedAfterGc();
+        CircuitBoard board = build.get();
+        board.getValidPath();
+        long after = usedAfterGc();
+        if (board.getRows() < 0) System.out.println(board); // keep the board alive until measured
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
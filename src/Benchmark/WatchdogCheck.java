@@ -0,0 +1,63 @@
+package src.Benchmark;
+
+import src.Metrics.TimerStats;
+import src.View.FxWatchdog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Stall watchdog without a screen: the main thread stands in for the FX thread. Sections under
+// the budget pass silently, a slow one is reported once with a stack sample pointing into it,
+// nested sections count as their outer one, and the p50/p99 summary reflects the recent times.
+// Then the cost of wrapping a handler.
+public class WatchdogCheck {
+    public static void main(String[] args) throws Exception {
+        List<FxWatchdog.Stall> reported = new ArrayList<>();
+        FxWatchdog watchdog = new FxWatchdog(Thread.currentThread(), 16, reported::add);
+
+        for (int i = 0; i < 98; i++) watchdog.run("fast", () -> spin(1));
+        watchdog.run("drop", () -> watchdog.run("nested", WatchdogCheck::slowHandler));
+        watchdog.run("drop", WatchdogCheck::slowHandler);
+        watchdog.end(); // unmatched: ignored
+
+        if (reported.size() != 2 || watchdog.getStallCount() != 2) throw new AssertionError("stalls: " + reported);
+        for (FxWatchdog.Stall stall : reported) {
+            if (!stall.getSection().equals("drop")) throw new AssertionError("nested section reported: " + stall);
+            if (!sampledIn(stall, "slowHandler")) throw new AssertionError("stack sample misses the slow handler:\n" + stall);
+        }
+        if (watchdog.getStalls().get(0) != reported.get(1)) throw new AssertionError("stalls not most recent first");
+
+        TimerStats handlers = watchdog.getHandlerSummary();
+        if (handlers.getCount() != 100) throw new AssertionError(handlers.toString());
+        if (handlers.getP50Nanos() >= 16_000_000 || handlers.getP99Nanos() < 40_000_000) throw new AssertionError(handlers.toString());
+        System.out.println("watchdog: " + handlers);
+        System.out.println("first stall: " + reported.get(0).toString().split(System.lineSeparator())[0]
+                + ", sampled at " + reported.get(0).getStack()[0] + ": ok");
+
+        Bench bench = new Bench(300, 1000);
+        int[] work = new int[1];
+        bench.run("bare handler", () -> ++work[0]);
+        bench.run("watched handler", () -> {
+            watchdog.run("tick", () -> work[0]++);
+            return work[0];
+        });
+        watchdog.shutdown();
+    }
+
+    private static void slowHandler() {
+        spin(50);
+    }
+
+    private static boolean sampledIn(FxWatchdog.Stall stall, String method) {
+        for (StackTraceElement frame : stall.getStack()) {
+            if (frame.getMethodName().equals(method)) return true;
+        }
+        return false;
+    }
+
+    // Busy, so the thread is on CPU when sampled (as a stalled FX thread would be)
+    private static void spin(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        while (System.nanoTime() < end) Thread.onSpinWait();
+    }
+}
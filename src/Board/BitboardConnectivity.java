@@ -0,0 +1,217 @@
+package src.Board;
+
+import src.Utils.ConnectionLogic;
+
+// Open ports kept as one bitset per side, row by row (`words` longs per row), updated in place
+// on every edit. A flood fill then moves 64 cells per word operation: within a row, a seed
+// runs right along a stretch of connected cells with one carry-propagating addition, and
+// left the same way on the bit-reversed row; between rows it is a plain AND.
+class BitboardConnectivity {
+    private final int rows;
+    private final int cols;
+    private final int words;
+    private final int pad;        // unused high bits in the last word of a row
+    private final long lastMask;  // valid bits of the last word of a row
+
+    private final long[] top;
+    private final long[] right;
+    private final long[] bottom;
+    private final long[] left;
+
+    // Edges derived from the ports: bit c of horizontal joins c and c + 1, bit c of vertical joins row r and r + 1
+    private final long[] horizontal;
+    private final long[] vertical;
+    private int staleLow = 0;       // rows whose edges need recomputing, inclusive
+    private int staleHigh;
+
+    private final long[] reach;
+    private final long[] scratch;
+    private final long[] reversedSeeds;
+    private final long[] reversedEdges;
+
+    BitboardConnectivity(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = (cols + 63) >>> 6;
+        this.pad = words * 64 - cols;
+        this.lastMask = pad == 0 ? -1L : (1L << (64 - pad)) - 1;
+
+        int size = rows * words;
+        top = new long[size];
+        right = new long[size];
+        bottom = new long[size];
+        left = new long[size];
+        horizontal = new long[size];
+        vertical = new long[size];
+        reach = new long[size];
+        scratch = new long[words];
+        reversedSeeds = new long[words];
+        reversedEdges = new long[words];
+        staleHigh = rows - 1;
+    }
+
+    void set(int row, int col, int ports) {
+        int word = row * words + (col >>> 6);
+        long bit = 1L << (col & 63);
+        top[word] = (ports & ConnectionLogic.TOP) != 0 ? top[word] | bit : top[word] & ~bit;
+        right[word] = (ports & ConnectionLogic.RIGHT) != 0 ? right[word] | bit : right[word] & ~bit;
+        bottom[word] = (ports & ConnectionLogic.BOTTOM) != 0 ? bottom[word] | bit : bottom[word] & ~bit;
+        left[word] = (ports & ConnectionLogic.LEFT) != 0 ? left[word] | bit : left[word] & ~bit;
+        // The vertical edges of the row above depend on this row too
+        staleLow = Math.min(staleLow, Math.max(0, row - 1));
+        staleHigh = Math.max(staleHigh, row);
+    }
+
+    void clear() {
+        java.util.Arrays.fill(top, 0);
+        java.util.Arrays.fill(right, 0);
+        java.util.Arrays.fill(bottom, 0);
+        java.util.Arrays.fill(left, 0);
+        staleLow = 0;
+        staleHigh = rows - 1;
+    }
+
+    // Packed cells (row * cols + col) connected to `start`, in row-major order, or null if
+    // `target` is not among them.
+    int[] reach(int start, int target) {
+        refreshEdges();
+        java.util.Arrays.fill(reach, 0);
+        reach[(start / cols) * words + ((start % cols) >>> 6)] |= 1L << ((start % cols) & 63);
+
+        // Sweep down then up until nothing changes; a sweep carries a path through any number of
+        // rows. Only rows from the first reached one to where the sweep stops finding cells are visited.
+        int low = start / cols;
+        int high = low;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int r = low; r < rows; r++) {
+                boolean grew = r > low && spread(r - 1, r);
+                grew |= fillRow(r);
+                if (grew) {
+                    changed = true;
+                    high = Math.max(high, r);
+                } else if (r >= high) {
+                    break;
+                }
+            }
+            for (int r = high; r >= 0; r--) {
+                boolean grew = r < high && spread(r + 1, r);
+                grew |= fillRow(r);
+                if (grew) {
+                    changed = true;
+                    low = Math.min(low, r);
+                } else if (r <= low) {
+                    break;
+                }
+            }
+        }
+
+        int targetWord = (target / cols) * words + ((target % cols) >>> 6);
+        if ((reach[targetWord] & (1L << ((target % cols) & 63))) == 0) return null;
+
+        int count = 0;
+        for (int w = low * words; w < (high + 1) * words; w++) count += Long.bitCount(reach[w]);
+        int[] cells = new int[count];
+        int i = 0;
+        for (int r = low; r <= high; r++) {
+            for (int w = 0; w < words; w++) {
+                long word = reach[r * words + w];
+                while (word != 0) {
+                    cells[i++] = r * cols + (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+        }
+        return cells;
+    }
+
+    private void refreshEdges() {
+        for (int r = staleLow; r <= staleHigh; r++) {
+            int base = r * words;
+            for (int w = 0; w < words; w++) {
+                // Left port of the cell to the right sits one bit higher
+                long nextLeft = (left[base + w] >>> 1) | (w + 1 < words ? left[base + w + 1] << 63 : 0);
+                horizontal[base + w] = right[base + w] & nextLeft;
+                vertical[base + w] = r + 1 < rows ? bottom[base + w] & top[base + words + w] : 0;
+            }
+        }
+        staleLow = rows;
+        staleHigh = -1;
+    }
+
+    // Moves reached cells from row `from` into the adjacent row `to` across the vertical edges
+    private boolean spread(int from, int to) {
+        int edgeRow = Math.min(from, to) * words;
+        boolean changed = false;
+        for (int w = 0; w < words; w++) {
+            long moved = reach[from * words + w] & vertical[edgeRow + w];
+            long before = reach[to * words + w];
+            if ((moved & ~before) != 0) {
+                reach[to * words + w] = before | moved;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Closes row `r` under horizontal moves: right along every stretch, then left
+    private boolean fillRow(int r) {
+        int base = r * words;
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            scratch[w] = reach[base + w];
+            any |= scratch[w] != 0;
+        }
+        if (!any) return false;
+
+        fillRight(scratch, 0, horizontal, base);
+
+        reverse(scratch, 0, reversedSeeds, pad);
+        reverse(horizontal, base, reversedEdges, pad + 1);
+        fillRight(reversedSeeds, 0, reversedEdges, 0);
+        reverse(reversedSeeds, 0, scratch, pad);
+
+        boolean changed = false;
+        for (int w = 0; w < words; w++) {
+            if (scratch[w] != reach[base + w]) {
+                reach[base + w] = scratch[w];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Adding the seeds that sit on an edge to the edge mask carries through each stretch of
+    // edges and stops on the cell after it; the bits that flipped are the cells reached.
+    private void fillRight(long[] seeds, int seedBase, long[] edges, int edgeBase) {
+        long carry = 0;
+        for (int w = 0; w < words; w++) {
+            long edge = edges[edgeBase + w];
+            long start = seeds[seedBase + w] & edge;
+            long sum = start + edge;
+            long overflow = Long.compareUnsigned(sum, start) < 0 ? 1 : 0;
+            if (carry != 0 && sum == -1L) overflow = 1;
+            sum += carry;
+            seeds[seedBase + w] |= sum ^ edge;
+            carry = overflow;
+        }
+        seeds[seedBase + words - 1] &= lastMask;
+    }
+
+    // Writes the row with bit c moved to bit (cols - 1 - c) - (shift - pad)
+    private void reverse(long[] src, int srcBase, long[] dst, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int k = 0; k < words; k++) {
+            long low = word(src, srcBase, k + wordShift);
+            long high = bitShift == 0 ? 0 : word(src, srcBase, k + wordShift + 1) << (64 - bitShift);
+            dst[k] = (low >>> bitShift) | high;
+        }
+    }
+
+    // Word k of the fully bit-reversed row
+    private long word(long[] src, int srcBase, int k) {
+        return k < words ? Long.reverse(src[srcBase + words - 1 - k]) : 0;
+    }
+}
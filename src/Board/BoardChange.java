@@ -0,0 +1,51 @@
+package src.Board;
+
+import java.util.BitSet;
+
+// What changed on a board. Single edits name one cell; a batch (see CircuitBoard.batch) reports
+// every cell it touched in one event, with kind CLEARED if the grid was cleared inside it.
+public final class BoardChange {
+    public enum Kind { PLACED, REMOVED, ROTATED, CLEARED, BATCH }
+
+    private final CircuitBoard board;
+    private final Kind kind;
+    private final int cell;       // the cell of a single edit, -1 for a batch
+    private final BitSet cells;   // the cells of a batch, null for a single edit
+
+    BoardChange(CircuitBoard board, Kind kind, int cell) {
+        this.board = board;
+        this.kind = kind;
+        this.cell = cell;
+        this.cells = null;
+    }
+
+    BoardChange(CircuitBoard board, Kind kind, BitSet cells) {
+        this.board = board;
+        this.kind = kind;
+        this.cell = -1;
+        this.cells = (BitSet) cells.clone();
+    }
+
+    public CircuitBoard getBoard() { return board; }
+    public Kind getKind() { return kind; }
+    public boolean isBatch() { return cells != null; }
+
+    // Number of cells that changed
+    public int size() {
+        return cells == null ? 1 : cells.cardinality();
+    }
+
+    // Changed cells, packed as row * cols + col, in ascending order
+    public int[] getCells() {
+        return cells == null ? new int[] {cell} : cells.stream().toArray();
+    }
+
+    public boolean contains(int row, int col) {
+        int packed = row * board.getCols() + col;
+        return cells == null ? packed == cell : cells.get(packed);
+    }
+
+    public String toString() {
+        return kind + " " + size() + " cell(s)";
+    }
+}
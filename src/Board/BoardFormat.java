@@ -0,0 +1,239 @@
+package src.Board;
+
+import src.Component.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Plain-text boards, one record per board:
+//
+//   board <id> <rows> <cols> [maxResistors maxCapacitors]
+//   S0=10* W0 W0 L1 B*
+//   X      X  .  W1 .
+//   ...                     (exactly <rows> lines of <cols> cells)
+//
+// A cell is `.` (empty), `X` (block) or a kind letter followed by an optional rotation in quarter
+// turns (0-3), an optional `=value` and an optional `*` for a locked preset:
+//   W wire, L corner, T junction, R resistor (ohm), C capacitor (F), S source (V), G ground, B bulb.
+// Lines starting with `#` and blank lines are skipped. Limits default to -1 (unlimited).
+public class BoardFormat {
+    private static final double DEFAULT_VOLTAGE = 10.0;
+
+    // Reads the lines of one record at a time, so records can be parsed somewhere else
+    public static class Reader {
+        private final BufferedReader in;
+        private int lineNumber = 0;
+        private int recordLine = 0;
+
+        public Reader(BufferedReader in) {
+            this.in = in;
+        }
+
+        // Header plus row lines of the next record, or null at the end of the input. A record cut
+        // short by the end of the input, or with an unreadable header, is returned as it is and
+        // fails in parse().
+        public List<String> next() throws IOException {
+            String header = nextLine();
+            if (header == null) return null;
+            recordLine = lineNumber;
+            List<String> record = new ArrayList<>();
+            record.add(header);
+
+            int rows = rowsOf(header);
+            for (int r = 0; r < rows; r++) {
+                String line = nextLine();
+                if (line == null) break;
+                record.add(line);
+            }
+            return record;
+        }
+
+        // Line number of the header of the last record returned
+        public int getLine() { return recordLine; }
+
+        private String nextLine() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty() && trimmed.charAt(0) != '#') return trimmed;
+            }
+            return null;
+        }
+
+        private static int rowsOf(String header) {
+            String[] fields = fields(header);
+            if (fields.length < 4 || !fields[0].equals("board")) return 0;
+            try {
+                return Math.max(0, Integer.parseInt(fields[2]));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    // Id from the header of a record, or null when it has none
+    public static String idOf(List<String> record) {
+        String[] fields = fields(record.get(0));
+        return fields.length > 1 && fields[0].equals("board") ? fields[1] : null;
+    }
+
+    public static CustomBoard parse(List<String> record) {
+        String[] header = fields(record.get(0));
+        if (!header[0].equals("board") || (header.length != 4 && header.length != 6)) {
+            throw new IllegalArgumentException("Expected 'board <id> <rows> <cols> [maxResistors maxCapacitors]': " + record.get(0));
+        }
+        int rows = number(header[2], "rows");
+        int cols = number(header[3], "cols");
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Board size must be positive: " + rows + "x" + cols);
+        int maxResistors = header.length == 6 ? number(header[4], "maxResistors") : -1;
+        int maxCapacitors = header.length == 6 ? number(header[5], "maxCapacitors") : -1;
+        if (record.size() != rows + 1) {
+            throw new IllegalArgumentException("Expected " + rows + " rows, found " + (record.size() - 1));
+        }
+
+        CustomBoard board = new CustomBoard(rows, cols, maxResistors, maxCapacitors);
+        for (int r = 0; r < rows; r++) {
+            String[] tokens = fields(record.get(r + 1));
+            if (tokens.length != cols) {
+                throw new IllegalArgumentException("Row " + r + ": expected " + cols + " cells, found " + tokens.length);
+            }
+            for (int c = 0; c < cols; c++) {
+                String token = tokens[c];
+                if (token.equals(".")) continue;
+                Component component = parseCell(token);
+                // Locked pieces (blocks always are) come back when the grid is cleared
+                if (component.isLocked()) {
+                    board.addPreset(r, c, () -> parseCell(token));
+                } else {
+                    board.placeComponent(r, c, component);
+                }
+            }
+        }
+        return board;
+    }
+
+    public static Component parseCell(String token) {
+        int end = token.length();
+        boolean locked = token.endsWith("*");
+        if (locked) end--;
+
+        double value = Double.NaN;
+        int equals = token.indexOf('=');
+        if (equals != -1) {
+            try {
+                value = Double.parseDouble(token.substring(equals + 1, end));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad value in cell '" + token + "'");
+            }
+            end = equals;
+        }
+
+        int quarters = 0;
+        if (end == 2) {
+            quarters = token.charAt(1) - '0';
+            if (quarters < 0 || quarters > 3) throw new IllegalArgumentException("Bad rotation in cell '" + token + "'");
+        } else if (end != 1) {
+            throw new IllegalArgumentException("Bad cell '" + token + "'");
+        }
+
+        ComponentType type = typeOf(token.charAt(0));
+        if (type == null) throw new IllegalArgumentException("Unknown piece '" + token.charAt(0) + "' in cell '" + token + "'");
+        boolean valued = type == ComponentType.RESISTOR || type == ComponentType.CAPACITOR;
+        if (valued && Double.isNaN(value)) throw new IllegalArgumentException("Missing value in cell '" + token + "'");
+        if (type == ComponentType.SOURCE && Double.isNaN(value)) value = DEFAULT_VOLTAGE;
+
+        Component component = type.create(value);
+        if (component.canRotate()) {
+            for (int i = 0; i < quarters; i++) component.rotate();
+        }
+        if (locked) component.setLocked(true);
+        return component;
+    }
+
+    // Inverse of parse(); presets and placed pieces are written the same way, locked ones with `*`
+    public static String format(String id, CircuitBoard board) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("board ").append(id).append(' ').append(board.getRows()).append(' ').append(board.getCols());
+        if (board.getMaxResistors() != -1 || board.getMaxCapacitors() != -1) {
+            sb.append(' ').append(board.getMaxResistors()).append(' ').append(board.getMaxCapacitors());
+        }
+        sb.append('\n');
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                if (c > 0) sb.append(' ');
+                sb.append(formatCell(board.getComponent(r, c)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static String formatCell(Component component) {
+        if (component == null) return ".";
+        ComponentType type = component.getType();
+        if (type == null) throw new IllegalArgumentException("Unknown component: " + component);
+        if (type == ComponentType.BLOCK) return "X";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(letterOf(type)).append(component.getRotationDegree() / 90);
+        if (component instanceof Resistor) sb.append('=').append(((Resistor) component).getResistance());
+        else if (component instanceof Capacitor) sb.append('=').append(((Capacitor) component).getCapacitance());
+        else if (component instanceof Source) sb.append('=').append(component.getVoltage());
+        if (component.isLocked()) sb.append('*');
+        return sb.toString();
+    }
+
+    private static ComponentType typeOf(char letter) {
+        switch (letter) {
+            case 'W': return ComponentType.WIRE;
+            case 'L': return ComponentType.CORNER_WIRE;
+            case 'T': return ComponentType.T_WIRE;
+            case 'R': return ComponentType.RESISTOR;
+            case 'C': return ComponentType.CAPACITOR;
+            case 'S': return ComponentType.SOURCE;
+            case 'G': return ComponentType.DESTINATION;
+            case 'B': return ComponentType.BULB;
+            case 'X': return ComponentType.BLOCK;
+            default: return null;
+        }
+    }
+
+    private static char letterOf(ComponentType type) {
+        switch (type) {
+            case WIRE: return 'W';
+            case CORNER_WIRE: return 'L';
+            case T_WIRE: return 'T';
+            case RESISTOR: return 'R';
+            case CAPACITOR: return 'C';
+            case SOURCE: return 'S';
+            case DESTINATION: return 'G';
+            case BULB: return 'B';
+            default: return 'X';
+        }
+    }
+
+    // Whitespace-separated fields; cheaper than a regex split on every row
+    private static String[] fields(String line) {
+        List<String> fields = new ArrayList<>();
+        int i = 0;
+        int n = line.length();
+        while (i < n) {
+            while (i < n && Character.isWhitespace(line.charAt(i))) i++;
+            int start = i;
+            while (i < n && !Character.isWhitespace(line.charAt(i))) i++;
+            if (i > start) fields.add(line.substring(start, i));
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static int number(String field, String name) {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + name + ": " + field);
+        }
+    }
+}
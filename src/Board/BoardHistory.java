@@ -0,0 +1,64 @@
+package src.Board;
+
+import java.util.ArrayDeque;
+
+// Undo/redo for one board, as a list of BoardSnapshots. Steps share every chunk they did not
+// edit, so a long history of a large board costs about one chunk per step. The oldest steps are
+// dropped beyond the capacity.
+public class BoardHistory {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final CircuitBoard board;
+    private final int capacity;
+    private final ArrayDeque<BoardSnapshot> undo = new ArrayDeque<>(); // newest first
+    private final ArrayDeque<BoardSnapshot> redo = new ArrayDeque<>();
+    private BoardSnapshot current;
+
+    public BoardHistory(CircuitBoard board) {
+        this(board, DEFAULT_CAPACITY);
+    }
+
+    public BoardHistory(CircuitBoard board, int capacity) {
+        this.board = board;
+        this.capacity = capacity;
+        this.current = board.snapshot();
+    }
+
+    // Ends a step: the board as it is now becomes the state undo() returns to from the next
+    // edit. Does nothing when the board is unchanged. Clears the redo steps.
+    public boolean record() {
+        BoardSnapshot next = board.snapshot();
+        if (next == current) return false;
+        undo.push(current);
+        if (undo.size() > capacity) undo.removeLast();
+        redo.clear();
+        current = next;
+        return true;
+    }
+
+    public boolean undo() {
+        record();
+        if (undo.isEmpty()) return false;
+        redo.push(current);
+        current = undo.pop();
+        board.restore(current);
+        return true;
+    }
+
+    public boolean redo() {
+        if (board.snapshot() != current) return false; // edited since: the redo steps no longer apply
+        if (redo.isEmpty()) return false;
+        undo.push(current);
+        current = redo.pop();
+        board.restore(current);
+        return true;
+    }
+
+    public boolean canUndo() { return !undo.isEmpty() || board.snapshot() != current; }
+    public boolean canRedo() { return !redo.isEmpty(); }
+    public int getUndoCount() { return undo.size(); }
+    public int getRedoCount() { return redo.size(); }
+
+    // State of the last recorded step
+    public BoardSnapshot getCurrent() { return current; }
+}
@@ -0,0 +1,6 @@
+package src.Board;
+
+// Told about every change to a board's cells, on the thread that made it
+public interface BoardListener {
+    void boardChanged(BoardChange change);
+}
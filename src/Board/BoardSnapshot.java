@@ -0,0 +1,212 @@
+package src.Board;
+
+import src.Component.*;
+
+import java.util.function.IntConsumer;
+
+// Immutable picture of a board at one moment, cheap to take after an edit.
+// The cells are split into chunks of CHUNK consecutive cells, held in a 32-way trie. A new
+// snapshot re-encodes only the chunks edited since the previous one and copies the trie nodes
+// on their paths; every other chunk and node is shared. Taking one after an edit therefore costs
+// O(CHUNK + log n) and keeps that much memory alive, however large the board.
+// Once built nothing in it changes, so any thread may read it while the board is edited.
+public class BoardSnapshot {
+    static final int CHUNK = 64;
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+
+    private final int rows;
+    private final int cols;
+    private final int maxResistors;
+    private final int maxCapacitors;
+    private final long stateHash;
+    private final int chunkCount;
+    private final int shift; // BITS * (levels of inner nodes - 1)
+    private final Object[] root;
+
+    private BoardSnapshot(int rows, int cols, int maxResistors, int maxCapacitors, long stateHash,
+                          int chunkCount, int shift, Object[] root) {
+        this.rows = rows;
+        this.cols = cols;
+        this.maxResistors = maxResistors;
+        this.maxCapacitors = maxCapacitors;
+        this.stateHash = stateHash;
+        this.chunkCount = chunkCount;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    // Cells of one chunk: kind (ComponentType ordinal + 1, 0 when empty), rotation and flags, value
+    static class Chunk {
+        private static final int LOCKED = 4;
+        private static final int FIXED = 8; // canRotate() == false
+        static final Chunk EMPTY = new Chunk();
+
+        final byte[] kinds = new byte[CHUNK];
+        final byte[] flags = new byte[CHUNK]; // rotation / 90 in the low two bits
+        final double[] values = new double[CHUNK];
+
+        void set(int i, Component component) {
+            if (component == null) return;
+            ComponentType type = component.getType();
+            if (type == null) throw new IllegalArgumentException("Unknown component: " + component);
+            kinds[i] = (byte) (type.ordinal() + 1);
+            int flag = component.getRotationDegree() / 90;
+            if (component.isLocked()) flag |= LOCKED;
+            if (!component.canRotate()) flag |= FIXED;
+            flags[i] = (byte) flag;
+            if (component instanceof Resistor) values[i] = ((Resistor) component).getResistance();
+            else if (component instanceof Capacitor) values[i] = ((Capacitor) component).getCapacitance();
+            else if (component instanceof Source) values[i] = component.getVoltage();
+        }
+
+        boolean sameCell(int i, Chunk other) {
+            return kinds[i] == other.kinds[i] && flags[i] == other.flags[i]
+                    && Double.doubleToLongBits(values[i]) == Double.doubleToLongBits(other.values[i]);
+        }
+
+        // Same piece apart from its rotation
+        boolean samePiece(int i, Chunk other) {
+            return kinds[i] == other.kinds[i] && (flags[i] & ~3) == (other.flags[i] & ~3)
+                    && Double.doubleToLongBits(values[i]) == Double.doubleToLongBits(other.values[i]);
+        }
+
+        Component create(int i) {
+            if (kinds[i] == 0) return null;
+            Component component = ComponentType.values()[kinds[i] - 1].create(values[i]);
+            for (int r = flags[i] & 3; r > 0; r--) component.rotate();
+            component.setLocked((flags[i] & LOCKED) != 0);
+            component.setCanRotate((flags[i] & FIXED) == 0);
+            return component;
+        }
+    }
+
+    // Board with nothing placed; every chunk is the shared empty one
+    static BoardSnapshot empty(int rows, int cols, int maxResistors, int maxCapacitors, long stateHash) {
+        int chunkCount = Math.max(1, (rows * cols + CHUNK - 1) / CHUNK);
+        int shift = 0;
+        while ((long) WIDTH << shift < chunkCount) shift += BITS;
+        return new BoardSnapshot(rows, cols, maxResistors, maxCapacitors, stateHash, chunkCount, shift,
+                fill(shift, chunkCount));
+    }
+
+    private static Object[] fill(int shift, int chunks) {
+        Object[] node = new Object[WIDTH];
+        if (shift == 0) {
+            java.util.Arrays.fill(node, 0, Math.min(WIDTH, chunks), Chunk.EMPTY);
+            return node;
+        }
+        // Full subtrees of empty chunks are all alike, so one is shared
+        int perChild = 1 << shift;
+        Object[] full = null;
+        for (int i = 0; i < WIDTH && chunks > 0; i++, chunks -= perChild) {
+            if (chunks >= perChild) {
+                if (full == null) full = fill(shift - BITS, perChild);
+                node[i] = full;
+            } else {
+                node[i] = fill(shift - BITS, chunks);
+            }
+        }
+        return node;
+    }
+
+    // Copy with chunk indexes[k] replaced by replaced[k], for the first `count` entries
+    BoardSnapshot with(Chunk[] replaced, int[] indexes, int count, int maxResistors, int maxCapacitors, long stateHash) {
+        Object[] newRoot = root;
+        for (int k = 0; k < count; k++) {
+            newRoot = assoc(newRoot, root, shift, indexes[k], replaced[k]);
+        }
+        return new BoardSnapshot(rows, cols, maxResistors, maxCapacitors, stateHash, chunkCount, shift, newRoot);
+    }
+
+    // Path copy; nodes already copied for this snapshot (not shared with `old`) are updated in place
+    private static Object[] assoc(Object[] node, Object[] old, int shift, int index, Chunk chunk) {
+        Object[] copy = node == old ? node.clone() : node;
+        int slot = (index >>> shift) & (WIDTH - 1);
+        if (shift == 0) {
+            copy[slot] = chunk;
+        } else {
+            Object[] oldChild = old == null ? null : (Object[]) old[slot];
+            copy[slot] = assoc((Object[]) copy[slot], oldChild, shift - BITS, index, chunk);
+        }
+        return copy;
+    }
+
+    Chunk chunk(int index) {
+        Object[] node = root;
+        for (int s = shift; s > 0; s -= BITS) node = (Object[]) node[(index >>> s) & (WIDTH - 1)];
+        return (Chunk) node[index & (WIDTH - 1)];
+    }
+
+    int getChunkCount() { return chunkCount; }
+
+    // Indexes of the chunks that are not shared with `other`, a snapshot of the same board size.
+    // Shared subtrees are skipped whole, so close versions compare in O(changes * log n).
+    void forEachChangedChunk(BoardSnapshot other, IntConsumer action) {
+        changed(root, other.root, shift, 0, action);
+    }
+
+    private static void changed(Object[] a, Object[] b, int shift, int base, IntConsumer action) {
+        if (a == b) return;
+        for (int slot = 0; slot < WIDTH; slot++) {
+            if (a[slot] == b[slot]) continue;
+            int index = base + (slot << shift);
+            if (shift == 0) action.accept(index);
+            else changed((Object[]) a[slot], (Object[]) b[slot], shift - BITS, index, action);
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMaxResistors() { return maxResistors; }
+    public int getMaxCapacitors() { return maxCapacitors; }
+
+    // Same value as CircuitBoard.getStateHash() at the time of the snapshot
+    public long getStateHash() { return stateHash; }
+
+    // A new component equal to the one in the cell, or null
+    public Component getComponent(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return null;
+        int cell = row * cols + col;
+        return chunk(cell / CHUNK).create(cell % CHUNK);
+    }
+
+    public ComponentType getType(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return null;
+        int cell = row * cols + col;
+        int kind = chunk(cell / CHUNK).kinds[cell % CHUNK];
+        return kind == 0 ? null : ComponentType.values()[kind - 1];
+    }
+
+    public int getPortMask(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return 0;
+        int cell = row * cols + col;
+        Chunk chunk = chunk(cell / CHUNK);
+        int kind = chunk.kinds[cell % CHUNK];
+        return kind == 0 ? 0 : ComponentType.values()[kind - 1].portMask((chunk.flags[cell % CHUNK] & 3) * 90);
+    }
+
+    // Validity, R, C and tau of this state, worked out on a private copy and memoized by state
+    // hash in the cache, which may be shared with the board and other threads
+    public Evaluation evaluate(EvaluationCache cache) {
+        Evaluation evaluation = cache.get(stateHash);
+        if (evaluation != null) return evaluation;
+        CustomBoard board = toBoard();
+        board.setEvaluationCache(cache);
+        return board.evaluate();
+    }
+
+    // A private, editable board in this state, e.g. for a solver on another thread.
+    // Locked pieces become presets, as in CustomBoard(Level).
+    public CustomBoard toBoard() {
+        CustomBoard board = new CustomBoard(rows, cols, maxResistors, maxCapacitors, rows * cols > 4096);
+        for (int cell = 0; cell < rows * cols; cell++) {
+            Chunk chunk = chunk(cell / CHUNK);
+            int i = cell % CHUNK;
+            if (chunk.kinds[i] == 0) continue;
+            if ((chunk.flags[i] & Chunk.LOCKED) != 0) board.addPreset(cell / cols, cell % cols, () -> chunk.create(i));
+            else board.placeComponent(cell / cols, cell % cols, chunk.create(i));
+        }
+        return board;
+    }
+}
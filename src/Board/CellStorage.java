@@ -0,0 +1,23 @@
+package src.Board;
+
+import src.Component.Component;
+
+// Backing store for the board cells, addressed by packed cell (row * cols + col).
+interface CellStorage {
+    Component get(int cell);
+
+    // Ports of the piece in the cell without materialising a Component (0 when empty)
+    int portMask(int cell);
+
+    void set(int cell, Component component);
+
+    void rotate(int cell);
+
+    void clear();
+
+    // True when get() hands back the very instance that was stored, so it can be found by identity
+    boolean keepsInstance(Component component);
+
+    // True when the cell holds this component, or for views the same piece in the same state
+    boolean holds(int cell, Component component);
+}
@@ -1,33 +1,176 @@
 package src.Board;
 
 import src.Component.*;
+import src.Metrics.Metrics;
 import src.Utils.ConnectionLogic;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 
+// Not thread-safe: one thread (the FX thread in the game) edits the board. Other threads read
+// the latest published BoardSnapshot from getPublished(), which never changes once published.
 public abstract class CircuitBoard {
+    private static final BooleanSupplier NEVER = () -> false;
+
     protected int rows;
     protected int cols;
-    protected Component[][] grid;
-    protected List<Component> toolbox = new ArrayList<>();
     protected int maxResistors = -1;
     protected int maxCapacitors = -1;
+    protected CircuitEngine engine = new SeriesParallelEngine();
+
+    // Lookup indexes kept in sync by placeComponent/removeComponent/clearGrid.
+    // Cells are packed as row * cols + col. Only Source, Destination and Bulb cells are indexed,
+    // and only components the storage keeps by identity are found by findPosition without a scan.
+    private final CellStorage cells;
+    private final Map<Component, Integer> cellOf = new IdentityHashMap<>();
+    private final Map<ComponentType, Set<Integer>> positions = new EnumMap<>(ComponentType.class);
+    private final int[] counts = new int[ComponentType.values().length];
+    private final ConnectivityIndex connectivity;
+    private final BitboardConnectivity bitboard;
+    private Netlist netlist;
+
+    // Zobrist hash of the cells, updated with every edit; keys the evaluation cache
+    private long stateHash;
+    private EvaluationCache evaluationCache = new EvaluationCache();
+    private final int[] firstCell = new int[ComponentType.values().length]; // first indexed cell per terminal type, or -1
+
+    // Last snapshot taken, and the chunks edited since; see snapshot()
+    private BoardSnapshot snapshot;
+    private final BitSet dirtyChunks = new BitSet();
+    // The same snapshot, for other threads
+    private volatile BoardSnapshot published;
+
+    // Change notification; inside a batch the touched cells are collected and reported once
+    private final List<BoardListener> listeners = new CopyOnWriteArrayList<>();
+    private int batchDepth = 0;
+    private final BitSet batchCells = new BitSet();
+    private boolean batchCleared = false;
+
+    // Scratch for searchValidPath, reused across calls
+    private final int[] visited;
+    private final int[] queue;
+    private final PathView pathView;
+    private int epoch = 0;
 
     public CircuitBoard(int rows, int cols) {
+        this(rows, cols, false);
+    }
+
+    // packed: keep the cells in primitive arrays (see PackedCellStorage) instead of one
+    // Component per cell. Much smaller on large boards; getComponent returns views.
+    protected CircuitBoard(int rows, int cols, boolean packed) {
         this.rows = rows;
         this.cols = cols;
-        this.grid = new Component[rows][cols];
+        this.cells = packed ? new PackedCellStorage(rows * cols) : new ObjectCellStorage(rows * cols);
+        this.connectivity = new ConnectivityIndex(rows, cols);
+        this.bitboard = new BitboardConnectivity(rows, cols);
+        this.visited = new int[rows * cols];
+        this.queue = new int[rows * cols];
+        this.pathView = new PathView(this, queue);
+        java.util.Arrays.fill(firstCell, -1);
+        this.stateHash = emptyHash();
+        this.snapshot = BoardSnapshot.empty(rows, cols, maxResistors, maxCapacitors, stateHash);
+        this.published = snapshot;
 
         presetComponent();
     }
 
     protected abstract void presetComponent();
 
-    public abstract double calculateTotalResistance(List<Component> activeComponents);
-    public abstract double calculateTotalCapacitance(List<Component> activeComponents);
+    public double calculateTotalResistance() {
+        return calculateTotalResistance(NEVER);
+    }
+
+    public double calculateTotalCapacitance() {
+        return calculateTotalCapacitance(NEVER);
+    }
+
+    // Throws a CancellationException once `cancelled` is true; the engine polls it while solving
+    public double calculateTotalResistance(BooleanSupplier cancelled) {
+        long start = Metrics.RESISTANCE.start();
+        try {
+            return engine.calculateTotalResistance(getNetlist(), cancelled);
+        } finally {
+            Metrics.RESISTANCE.stop(start);
+        }
+    }
+
+    public double calculateTotalCapacitance(BooleanSupplier cancelled) {
+        long start = Metrics.CAPACITANCE.start();
+        try {
+            return engine.calculateTotalCapacitance(getNetlist(), cancelled);
+        } finally {
+            Metrics.CAPACITANCE.stop(start);
+        }
+    }
+
+    // The path argument is not needed any more: the whole connected circuit is in the netlist
+    public double calculateTotalResistance(List<Component> activeComponents) {
+        return calculateTotalResistance();
+    }
+
+    public double calculateTotalCapacitance(List<Component> activeComponents) {
+        return calculateTotalCapacitance();
+    }
+
+    // Compiled once per board state; every edit drops it
+    public Netlist getNetlist() {
+        if (netlist == null) netlist = Netlist.compile(this);
+        return netlist;
+    }
+
+    // Validity, R, C and tau of the current state, memoized by state hash
+    public Evaluation evaluate() {
+        return evaluate(NEVER);
+    }
+
+    // Gives up with a CancellationException once `cancelled` is true: checked between R and C and
+    // inside the engine. A cancelled evaluation leaves nothing in the cache.
+    public Evaluation evaluate(BooleanSupplier cancelled) {
+        long key = stateHash;
+        Evaluation evaluation = evaluationCache.get(key);
+        if (evaluation != null) {
+            Metrics.EVALUATION_HITS.increment();
+            return evaluation;
+        }
+        Metrics.EVALUATION_MISSES.increment();
+
+        boolean valid = hasValidPath();
+        double resistance = valid ? calculateTotalResistance(cancelled) : 0.0;
+        if (cancelled.getAsBoolean()) throw new CancellationException("Evaluation cancelled");
+        double capacitance = valid ? calculateTotalCapacitance(cancelled) : 0.0;
+        evaluation = new Evaluation(valid, resistance, capacitance);
+        evaluationCache.put(key, evaluation);
+        return evaluation;
+    }
+
+    public long getStateHash() { return stateHash; }
+    public EvaluationCache getEvaluationCache() { return evaluationCache; }
+    public void setEvaluationCache(EvaluationCache cache) { this.evaluationCache = cache; }
+
+    // Whether the Source reaches the Destination, answered from the netlist
+    public boolean hasValidPath() {
+        long start = Metrics.PATH.start();
+        try {
+            return getNetlist().isConnected();
+        } finally {
+            Metrics.PATH.stop(start);
+        }
+    }
+
+    public CircuitEngine getEngine() { return engine; }
+    public void setEngine(CircuitEngine engine) { this.engine = engine; }
 
     protected static class Point{
         public int row;
@@ -39,18 +182,125 @@ public abstract class CircuitBoard {
     }
 
     protected Point findComponentType(ComponentType type){
-        for(int i = 0; i < rows; i++){
-            for(int j = 0; j < cols; j++){
-                Component component = grid[i][j];
-                if(type.isInstance(component)){
-                    return new Point(i, j);
-                }
-            }
+        if (counts[type.ordinal()] == 0) return null;
+        int first = firstCell[type.ordinal()];
+        if (first != -1) return new Point(first / cols, first % cols);
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if (type.isInstance(cells.get(cell))) return new Point(cell / cols, cell % cols);
         }
         return null;
     }
+
+    // Packed position (row * cols + col) of a placed component, or -1. Views handed out by a
+    // packed board are not tied to their cell; for those this scans for the first cell holding
+    // the same piece.
+    public int findPosition(Component component) {
+        Integer cell = cellOf.get(component);
+        if (cell != null) return cell;
+        if (component == null || !component.isReadOnly()) return -1;
+        for (int i = 0; i < rows * cols; i++) {
+            if (cells.holds(i, component)) return i;
+        }
+        return -1;
+    }
+
+    public int countComponents(ComponentType type) {
+        return counts[type.ordinal()];
+    }
     
+    // Components connected to the Source, or null when the Destination is not among them.
     public List<Component> getValidPath() {
+        long started = Metrics.PATH.start();
+        try {
+            Point start = findComponentType(ComponentType.SOURCE);
+            Point end = findComponentType(ComponentType.DESTINATION);
+
+            if (start == null || end == null) return null;
+
+            int startCell = start.row * cols + start.col;
+            if (!connectivity.connected(this, startCell, end.row * cols + end.col)) return null;
+            return componentsAt(connectivity.members(this, startCell));
+        } finally {
+            Metrics.PATH.stop(started);
+        }
+    }
+
+    // The connected component containing the Source (empty if there is no Source).
+    public List<Component> getSourceCircuit() {
+        Point start = findComponentType(ComponentType.SOURCE);
+        if (start == null) return new ArrayList<>();
+        return componentsAt(connectivity.members(this, start.row * cols + start.col));
+    }
+
+    private List<Component> componentsAt(int[] members) {
+        List<Component> components = new ArrayList<>(members.length);
+        for (int cell : members) {
+            components.add(cells.get(cell));
+        }
+        return components;
+    }
+
+    // Same cells as getValidPath, found by a word-parallel flood fill over the port bitsets.
+    // Needs no rebuild after removals or rotations, which makes it the better fit for
+    // large boards that are edited between queries.
+    public List<Component> floodValidPath() {
+        Point start = findComponentType(ComponentType.SOURCE);
+        Point end = findComponentType(ComponentType.DESTINATION);
+
+        if (start == null || end == null) return null;
+
+        int[] reached = bitboard.reach(start.row * cols + start.col, end.row * cols + end.col);
+        return reached == null ? null : componentsAt(reached);
+    }
+
+    // Breadth-first search over board-owned buffers: visited cells are stamped with a per-call
+    // epoch instead of clearing an array, the queue holds packed cells and doubles as the result.
+    // Allocates nothing; the returned view is overwritten by the next call.
+    public PathView searchValidPath() {
+        int start = firstCell[ComponentType.SOURCE.ordinal()];
+        int end = firstCell[ComponentType.DESTINATION.ordinal()];
+        if (start == -1 || end == -1) {
+            pathView.set(0, false);
+            return pathView;
+        }
+
+        if (++epoch == 0) {
+            java.util.Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = epoch;
+        boolean destinationReached = false;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == end) destinationReached = true;
+            int row = cell / cols;
+            int col = cell % cols;
+            int ports = cells.portMask(cell);
+
+            // Same order as traceValidPath: up, down, left, right
+            if ((ports & ConnectionLogic.TOP) != 0 && row > 0) tail = visit(cell - cols, ConnectionLogic.BOTTOM, tail);
+            if ((ports & ConnectionLogic.BOTTOM) != 0 && row < rows - 1) tail = visit(cell + cols, ConnectionLogic.TOP, tail);
+            if ((ports & ConnectionLogic.LEFT) != 0 && col > 0) tail = visit(cell - 1, ConnectionLogic.RIGHT, tail);
+            if ((ports & ConnectionLogic.RIGHT) != 0 && col < cols - 1) tail = visit(cell + 1, ConnectionLogic.LEFT, tail);
+        }
+
+        pathView.set(tail, destinationReached);
+        return pathView;
+    }
+
+    private int visit(int cell, int port, int tail) {
+        if (visited[cell] == epoch || (cells.portMask(cell) & port) == 0) return tail;
+        visited[cell] = epoch;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    // Breadth-first reference search; same result set as getValidPath, in BFS order.
+    public List<Component> traceValidPath() {
         Point start = findComponentType(ComponentType.SOURCE);
         Point end = findComponentType(ComponentType.DESTINATION);
 
@@ -63,8 +313,8 @@ public abstract class CircuitBoard {
         visited[start.row][start.col] = true;
 
         List<Component> activePath = new ArrayList<>();
-        if (grid[start.row][start.col] != null) {
-            activePath.add(grid[start.row][start.col]);
+        if (getComponent(start.row, start.col) != null) {
+            activePath.add(getComponent(start.row, start.col));
         }
 
         int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
@@ -72,7 +322,7 @@ public abstract class CircuitBoard {
 
         while(!queue.isEmpty()){
             Point currentPoint = queue.poll();
-            Component currentComponent = grid[currentPoint.row][currentPoint.col];
+            Component currentComponent = getComponent(currentPoint.row, currentPoint.col);
 
             if(currentPoint.row == end.row && currentPoint.col == end.col){
                 destinationReached = true;
@@ -86,7 +336,7 @@ public abstract class CircuitBoard {
                 int nextCol = currentPoint.col + colDirection;
 
                 if(isValid(nextRow, nextCol) && !visited[nextRow][nextCol]){
-                    Component neighbor = grid[nextRow][nextCol];
+                    Component neighbor = getComponent(nextRow, nextCol);
 
                     if (ConnectionLogic.areConnected(currentComponent, neighbor, rowDirection, colDirection)) {
                         visited[nextRow][nextCol] = true;
@@ -118,15 +368,7 @@ public abstract class CircuitBoard {
                 return true;
         }
         if(limit == -1) return true;
-        int current = 0;
-        for(int i = 0; i < rows; i++){
-            for(int j = 0; j < cols; j++){
-                if(grid[i][j] != null && type.isInstance(grid[i][j])){
-                    current++;
-                }
-            }
-        }
-        return current < limit;
+        return countComponents(type) < limit;
     }
 
     protected boolean isValid(int row, int col) {
@@ -135,13 +377,26 @@ public abstract class CircuitBoard {
 
     public Component getComponent(int row, int col) {
         if (!isValid(row, col)) return null;
-        return grid[row][col];
+        return cells.get(row * cols + col);
+    }
+
+    // Open ports of the cell (see ConnectionLogic), 0 when empty or off the board.
+    public int getPortMask(int row, int col) {
+        if (!isValid(row, col)) return 0;
+        return cells.portMask(row * cols + col);
     }
 
     public boolean placeComponent(int row, int col, Component component) {
         if (!isValid(row, col)) return false;
-        if (grid[row][col] == null) {
-            grid[row][col] = component;
+        if (cells.get(row * cols + col) == null) {
+            cells.set(row * cols + col, component);
+            index(row, col, component);
+            connectivity.componentPlaced(this, row, col);
+            netlist = null;
+            stateHash ^= cellKey(row * cols + col, component);
+            bitboard.set(row, col, cells.portMask(row * cols + col));
+            dirtyChunks.set((row * cols + col) / BoardSnapshot.CHUNK);
+            changed(BoardChange.Kind.PLACED, row * cols + col);
             return true;
         }
         return false;
@@ -150,24 +405,258 @@ public abstract class CircuitBoard {
     public boolean removeComponent(int row, int col) {
         if (!isValid(row, col)) return false;
 
-        Component toRemove = grid[row][col];
+        Component toRemove = getComponent(row, col);
         if (toRemove == null) return false;
 
         if (toRemove.isLocked()) return false;
-        toolbox.add(toRemove);
-        grid[row][col] = null;
+        clearCell(row, col, toRemove);
         return true;
     }
 
+    private void clearCell(int row, int col, Component component) {
+        stateHash ^= cellKey(row * cols + col, component);
+        cells.set(row * cols + col, null);
+        unindex(row, col, component);
+        connectivity.invalidate();
+        bitboard.set(row, col, 0);
+        netlist = null;
+        dirtyChunks.set((row * cols + col) / BoardSnapshot.CHUNK);
+        changed(BoardChange.Kind.REMOVED, row * cols + col);
+    }
+
+    public boolean rotateComponent(int row, int col) {
+        Component component = getComponent(row, col);
+        if (component == null || !component.canRotate()) return false;
+        stateHash ^= cellKey(row * cols + col, component);
+        cells.rotate(row * cols + col);
+        stateHash ^= cellKey(row * cols + col, getComponent(row, col));
+        connectivity.invalidate();
+        bitboard.set(row, col, cells.portMask(row * cols + col));
+        netlist = null;
+        dirtyChunks.set((row * cols + col) / BoardSnapshot.CHUNK);
+        changed(BoardChange.Kind.ROTATED, row * cols + col);
+        return true;
+    }
+
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Runs the edits as one change: listeners hear once, when the outermost batch ends, about
+    // every cell touched inside it
+    public void batch(Runnable edits) {
+        beginBatch();
+        try {
+            edits.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    public void endBatch() {
+        if (batchDepth == 0) throw new IllegalStateException("endBatch() without beginBatch()");
+        if (--batchDepth > 0) return;
+        BoardChange change = batchCells.isEmpty() || listeners.isEmpty() ? null
+                : new BoardChange(this, batchCleared ? BoardChange.Kind.CLEARED : BoardChange.Kind.BATCH, batchCells);
+        batchCells.clear();
+        batchCleared = false;
+        if (change != null) fire(change);
+    }
+
+    private void changed(BoardChange.Kind kind, int cell) {
+        if (batchDepth > 0) {
+            batchCells.set(cell);
+        } else if (!listeners.isEmpty()) {
+            fire(new BoardChange(this, kind, cell));
+        }
+    }
+
+    private void fire(BoardChange change) {
+        for (BoardListener listener : listeners) listener.boardChanged(change);
+    }
+
+    // Immutable copy of the current state. Only the chunks edited since the last call are
+    // encoded again; the rest is shared with the previous snapshot. Call from the editing thread;
+    // the result may then be handed to any thread.
+    public BoardSnapshot snapshot() {
+        if (dirtyChunks.isEmpty() && snapshot.getMaxResistors() == maxResistors
+                && snapshot.getMaxCapacitors() == maxCapacitors) {
+            return snapshot;
+        }
+        int count = dirtyChunks.cardinality();
+        BoardSnapshot.Chunk[] chunks = new BoardSnapshot.Chunk[count];
+        int[] indexes = new int[count];
+        int k = 0;
+        for (int i = dirtyChunks.nextSetBit(0); i >= 0; i = dirtyChunks.nextSetBit(i + 1)) {
+            chunks[k] = encodeChunk(i);
+            indexes[k++] = i;
+        }
+        dirtyChunks.clear();
+        snapshot = snapshot.with(chunks, indexes, count, maxResistors, maxCapacitors, stateHash);
+        published = snapshot;
+        return snapshot;
+    }
+
+    // Publishes the current state to getPublished(); call from the editing thread once an edit
+    // is complete. Same as snapshot().
+    public BoardSnapshot publish() {
+        return snapshot();
+    }
+
+    // Latest snapshot published by snapshot(), publish() or restore(). Safe from any thread,
+    // never blocks and never sees a half-made edit; may lag behind edits not yet published.
+    public BoardSnapshot getPublished() {
+        return published;
+    }
+
+    private BoardSnapshot.Chunk encodeChunk(int index) {
+        int first = index * BoardSnapshot.CHUNK;
+        int end = Math.min(first + BoardSnapshot.CHUNK, rows * cols);
+        BoardSnapshot.Chunk chunk = null;
+        for (int cell = first; cell < end; cell++) {
+            Component component = cells.get(cell);
+            if (component == null) continue;
+            if (chunk == null) chunk = new BoardSnapshot.Chunk();
+            chunk.set(cell - first, component);
+        }
+        return chunk == null ? BoardSnapshot.Chunk.EMPTY : chunk;
+    }
+
+    // Brings the board to the state of a snapshot taken from it (or from a board of the same
+    // size), locked pieces included. Only cells in chunks that differ are touched; a piece that
+    // was only turned is rotated back in place, so it keeps its identity.
+    public void restore(BoardSnapshot target) {
+        if (target.getRows() != rows || target.getCols() != cols) {
+            throw new IllegalArgumentException("Snapshot is " + target.getRows() + "x" + target.getCols()
+                    + ", board is " + rows + "x" + cols);
+        }
+        BoardSnapshot current = snapshot();
+        batch(() -> current.forEachChangedChunk(target, k -> restoreChunk(k, current.chunk(k), target.chunk(k))));
+        maxResistors = target.getMaxResistors();
+        maxCapacitors = target.getMaxCapacitors();
+        dirtyChunks.clear();
+        snapshot = target;
+        published = target;
+    }
+
+    private void restoreChunk(int k, BoardSnapshot.Chunk from, BoardSnapshot.Chunk to) {
+        int first = k * BoardSnapshot.CHUNK;
+        int end = Math.min(BoardSnapshot.CHUNK, rows * cols - first);
+        for (int i = 0; i < end; i++) {
+            if (from.sameCell(i, to)) continue;
+            int row = (first + i) / cols;
+            int col = (first + i) % cols;
+            Component existing = cells.get(first + i);
+            if (existing != null && existing.canRotate() && from.samePiece(i, to)) {
+                for (int turns = (to.flags[i] - from.flags[i]) & 3; turns > 0; turns--) rotateComponent(row, col);
+                continue;
+            }
+            if (existing != null) clearCell(row, col, existing);
+            Component replacement = to.create(i);
+            if (replacement != null) placeComponent(row, col, replacement);
+        }
+    }
+
+    // One CLEARED change for the cells emptied and the presets placed again
     public void clearGrid() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                grid[i][j] = null;
+        beginBatch();
+        try {
+            if (!listeners.isEmpty()) {
+                for (int cell = 0; cell < rows * cols; cell++) {
+                    if (cells.get(cell) != null) batchCells.set(cell);
+                }
             }
+            batchCleared = true;
+            resetCells();
+            presetComponent();
+        } finally {
+            endBatch();
         }
-        presetComponent();
+    }
+
+    private void resetCells() {
+        cells.clear();
+        cellOf.clear();
+        positions.clear();
+        java.util.Arrays.fill(counts, 0);
+        java.util.Arrays.fill(firstCell, -1);
+        connectivity.invalidate();
+        bitboard.clear();
+        netlist = null;
+        stateHash = emptyHash();
+        dirtyChunks.set(0, (rows * cols + BoardSnapshot.CHUNK - 1) / BoardSnapshot.CHUNK);
+    }
+
+    // Keyed on the port mask rather than the rotation, so a straight piece turned by 180 degrees
+    // hashes the same: electrically it is the same board.
+    private static long cellKey(int cell, Component component) {
+        ComponentType type = component.getType();
+        long kind = type == null ? 15 : type.ordinal();
+        long key = mix(((long) cell << 8) | (kind << 4) | component.getPortMask());
+        return mix(key ^ Double.doubleToLongBits(valueOf(component)));
+    }
+
+    private static double valueOf(Component component) {
+        if (component instanceof Resistor) return ((Resistor) component).getResistance();
+        if (component instanceof Capacitor) return ((Capacitor) component).getCapacitance();
+        if (component instanceof Source) return component.getVoltage();
+        return 0.0;
+    }
+
+    // Boards of different sizes start from different hashes, so they can share a cache
+    private long emptyHash() {
+        return mix(((long) rows << 32) | cols);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void index(int row, int col, Component component) {
+        if (component == null) return;
+        int cell = row * cols + col;
+        if (cells.keepsInstance(component)) cellOf.put(component, cell);
+        ComponentType type = component.getType();
+        if (type == null) return;
+        counts[type.ordinal()]++;
+        if (isTerminal(type)) {
+            positions.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(cell);
+            if (firstCell[type.ordinal()] == -1) firstCell[type.ordinal()] = cell;
+        }
+    }
+
+    private void unindex(int row, int col, Component component) {
+        cellOf.remove(component);
+        ComponentType type = component.getType();
+        if (type == null) return;
+        counts[type.ordinal()]--;
+        Set<Integer> indexed = positions.get(type);
+        if (indexed != null) indexed.remove(row * cols + col);
+        if (firstCell[type.ordinal()] == row * cols + col) {
+            firstCell[type.ordinal()] = indexed == null || indexed.isEmpty() ? -1 : indexed.iterator().next();
+        }
+    }
+
+    // Only the few fixed pieces get a position index; the rest can fill the whole board and are
+    // only counted, since indexing each of their cells would cost more than the cells themselves
+    private static boolean isTerminal(ComponentType type) {
+        return type == ComponentType.SOURCE || type == ComponentType.DESTINATION || type == ComponentType.BULB;
     }
 
     public int getRows() { return rows; }
     public int getCols() { return cols; }
+    public int getMaxResistors() { return maxResistors; }
+    public int getMaxCapacitors() { return maxCapacitors; }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package src.Board;
+
+import java.util.function.BooleanSupplier;
+
+public interface CircuitEngine {
+    // Equivalent resistance seen between Source and Destination (capacitors treated as wires).
+    double calculateTotalResistance(Netlist netlist);
+
+    // Equivalent capacitance seen between Source and Destination (resistors treated as wires).
+    double calculateTotalCapacitance(Netlist netlist);
+
+    // Same, but engines that iterate poll `cancelled` as they go and throw a
+    // CancellationException once it is true.
+    default double calculateTotalResistance(Netlist netlist, BooleanSupplier cancelled) {
+        return calculateTotalResistance(netlist);
+    }
+
+    default double calculateTotalCapacitance(Netlist netlist, BooleanSupplier cancelled) {
+        return calculateTotalCapacitance(netlist);
+    }
+}
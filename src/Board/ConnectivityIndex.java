@@ -0,0 +1,109 @@
+package src.Board;
+
+import src.Utils.ConnectionLogic;
+
+// Union-find over board cells, joined wherever two neighbours share open ports.
+// Placing a component only adds edges, so it is merged in directly; removals and
+// rotations can split a set, so they mark the index stale and the next query rebuilds it.
+class ConnectivityIndex {
+    private final int rows;
+    private final int cols;
+    private final int[] parent;
+    private final int[] size;
+    private final int[] next; // circular list of the members of each set
+    private boolean stale = false;
+
+    ConnectivityIndex(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.parent = new int[rows * cols];
+        this.size = new int[rows * cols];
+        this.next = new int[rows * cols];
+        reset();
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void componentPlaced(CircuitBoard board, int row, int col) {
+        if (stale) return;
+        connectNeighbours(board, row, col, true);
+    }
+
+    boolean connected(CircuitBoard board, int a, int b) {
+        refresh(board);
+        return find(a) == find(b);
+    }
+
+    // Cells in the same set as the given one, in no particular order.
+    int[] members(CircuitBoard board, int cell) {
+        refresh(board);
+        int[] members = new int[size[find(cell)]];
+        int count = 0;
+        int current = cell;
+        do {
+            members[count++] = current;
+            current = next[current];
+        } while (current != cell);
+        return members;
+    }
+
+    private void refresh(CircuitBoard board) {
+        if (!stale) return;
+        reset();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                connectNeighbours(board, r, c, false);
+            }
+        }
+        stale = false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+            next[i] = i;
+        }
+    }
+
+    // Right and bottom are enough when sweeping the whole grid; a single placement checks all four sides.
+    private void connectNeighbours(CircuitBoard board, int row, int col, boolean allSides) {
+        int ports = board.getPortMask(row, col);
+        if (ports == 0) return;
+        int cell = row * cols + col;
+
+        // Port masks rather than Components, so packed boards do not build views here
+        if ((ports & ConnectionLogic.RIGHT) != 0 && (board.getPortMask(row, col + 1) & ConnectionLogic.LEFT) != 0) link(cell, cell + 1);
+        if ((ports & ConnectionLogic.BOTTOM) != 0 && (board.getPortMask(row + 1, col) & ConnectionLogic.TOP) != 0) link(cell, cell + cols);
+        if (!allSides) return;
+        if ((ports & ConnectionLogic.LEFT) != 0 && (board.getPortMask(row, col - 1) & ConnectionLogic.RIGHT) != 0) link(cell, cell - 1);
+        if ((ports & ConnectionLogic.TOP) != 0 && (board.getPortMask(row - 1, col) & ConnectionLogic.BOTTOM) != 0) link(cell, cell - cols);
+    }
+
+    private void link(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA; rootA = rootB; rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+
+        // Swapping successors splices the two circular member lists into one
+        int tmp = next[a];
+        next[a] = next[b];
+        next[b] = tmp;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
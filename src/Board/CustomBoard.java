@@ -0,0 +1,72 @@
+package src.Board;
+
+import src.Component.Component;
+import src.Level.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class CustomBoard extends CircuitBoard {
+    // Filled after the super constructor has run, so presetComponent() must tolerate null.
+    private List<Preset> presets;
+
+    private static class Preset {
+        final int row;
+        final int col;
+        final Supplier<Component> factory;
+        Preset(int row, int col, Supplier<Component> factory) {
+            this.row = row;
+            this.col = col;
+            this.factory = factory;
+        }
+    }
+
+    public CustomBoard(int rows, int cols) {
+        super(rows, cols);
+        this.presets = new ArrayList<>();
+    }
+
+    public CustomBoard(int rows, int cols, int maxResistors, int maxCapacitors) {
+        this(rows, cols);
+        this.maxResistors = maxResistors;
+        this.maxCapacitors = maxCapacitors;
+    }
+
+    // packed: primitive-array cell storage for large boards, see CircuitBoard(int, int, boolean)
+    public CustomBoard(int rows, int cols, int maxResistors, int maxCapacitors, boolean packed) {
+        super(rows, cols, packed);
+        this.presets = new ArrayList<>();
+        this.maxResistors = maxResistors;
+        this.maxCapacitors = maxCapacitors;
+    }
+
+    // Board for a decoded level: its size and limits, locked pieces as presets, the rest placed
+    public CustomBoard(Level level) {
+        this(level.getRows(), level.getCols(), level.getMaxResistors(), level.getMaxCapacitors());
+        for (int r = 0; r < level.getRows(); r++) {
+            for (int c = 0; c < level.getCols(); c++) {
+                if (level.getType(r, c) == null) continue;
+                int row = r;
+                int col = c;
+                if (level.isLocked(r, c)) addPreset(r, c, () -> level.createComponent(row, col));
+                else placeComponent(r, c, level.createComponent(r, c));
+            }
+        }
+    }
+
+    // Places a fixed component now and again every time the grid is cleared.
+    public boolean addPreset(int row, int col, Supplier<Component> factory) {
+        if (!placeComponent(row, col, factory.get())) return false;
+        presets.add(new Preset(row, col, factory));
+        return true;
+    }
+
+    @Override
+    protected void presetComponent() {
+        if (presets == null) return;
+        for (Preset preset : presets) {
+            placeComponent(preset.row, preset.col, preset.factory.get());
+        }
+    }
+}
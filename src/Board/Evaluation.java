@@ -0,0 +1,24 @@
+package src.Board;
+
+// Outcome of evaluating one board state; immutable so it can be shared through the cache.
+public class Evaluation {
+    private final boolean valid;
+    private final double resistance;
+    private final double capacitance;
+
+    public Evaluation(boolean valid, double resistance, double capacitance) {
+        this.valid = valid;
+        this.resistance = resistance;
+        this.capacitance = capacitance;
+    }
+
+    // Source connected to the Destination
+    public boolean isValid() { return valid; }
+    public double getResistance() { return resistance; }
+    public double getCapacitance() { return capacitance; }
+    public double getTau() { return resistance * capacitance; }
+
+    public String toString() {
+        return String.format("valid=%b R=%.3f C=%.3f tau=%.3f", valid, resistance, capacitance, getTau());
+    }
+}
@@ -0,0 +1,48 @@
+package src.Board;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Size-bounded LRU of evaluations keyed by the board's Zobrist hash. Thread-safe, so search
+// tools can share one cache between boards of the same size.
+public class EvaluationCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final Map<Long, Evaluation> entries;
+    private long hits;
+    private long misses;
+
+    public EvaluationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EvaluationCache(int capacity) {
+        this.entries = new LinkedHashMap<Long, Evaluation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Evaluation> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Evaluation get(long key) {
+        Evaluation evaluation = entries.get(key);
+        if (evaluation == null) misses++;
+        else hits++;
+        return evaluation;
+    }
+
+    public synchronized void put(long key, Evaluation evaluation) {
+        entries.put(key, evaluation);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized int size() { return entries.size(); }
+}
@@ -0,0 +1,197 @@
+package src.Board;
+
+import src.Component.*;
+import src.Utils.ConnectionLogic;
+
+public class Netlist {
+    // Branch kinds: two-terminal elements between nodes
+    public static final int RESISTOR = 0;
+    public static final int CAPACITOR = 1;
+
+    // Element kinds: one-terminal elements sitting on a node
+    public static final int SOURCE = 0;
+    public static final int DESTINATION = 1;
+    public static final int BULB = 2;
+
+    private static final int TOP = 0, RIGHT = 1, BOTTOM = 2, LEFT = 3;
+
+    private int nodeCount;
+    private int sourceNode = -1;
+    private int groundNode = -1;
+
+    private int branchCount;
+    private int[] branchKind;
+    private int[] branchFrom;
+    private int[] branchTo;
+    private double[] branchValue;
+    private int[] branchCell;
+
+    private int elementCount;
+    private int[] elementKind;
+    private int[] elementNode;
+    private int[] elementCell;
+    private double sourceVoltage;
+
+    private int[] componentOf; // connected component of each node through the branches
+    private int cellCount;
+
+    private Netlist() {}
+
+    // Every cell owns four terminals (one per side). Conductors (wires, bulb, source, ground)
+    // join their active terminals, touching ports of neighbours are joined, and whatever is
+    // left separate after that is an electrical node, so a whole run of wire cells becomes one
+    // node. Resistors and capacitors become branches; Source, Destination and Bulbs become
+    // elements on their node. Wire runs that touch none of these are dropped.
+    public static Netlist compile(CircuitBoard board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int[] parent = new int[rows * cols * 4];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+
+        int branches = 0;
+        int elements = 0;
+        int sourceTerminal = -1;
+        int groundTerminal = -1;
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Component comp = board.getComponent(r, c);
+                if (comp == null) continue;
+
+                int base = (r * cols + c) * 4;
+                int ports = comp.getPortMask();
+
+                if (comp instanceof Resistor || comp instanceof Capacitor) {
+                    branches++;
+                } else {
+                    int first = -1;
+                    for (int d = 0; d < 4; d++) {
+                        if ((ports & (1 << d)) == 0) continue;
+                        if (first == -1) first = base + d;
+                        else union(parent, first, base + d);
+                    }
+                    if (comp instanceof Source) sourceTerminal = first;
+                    else if (comp instanceof Destination) groundTerminal = first;
+                    if ((comp instanceof Source || comp instanceof Destination || comp instanceof Bulb) && first != -1) {
+                        elements++;
+                    }
+                }
+
+                if ((ports & ConnectionLogic.RIGHT) != 0 && (board.getPortMask(r, c + 1) & ConnectionLogic.LEFT) != 0) {
+                    union(parent, base + RIGHT, (r * cols + c + 1) * 4 + LEFT);
+                }
+                if ((ports & ConnectionLogic.BOTTOM) != 0 && (board.getPortMask(r + 1, c) & ConnectionLogic.TOP) != 0) {
+                    union(parent, base + BOTTOM, ((r + 1) * cols + c) * 4 + TOP);
+                }
+            }
+        }
+
+        Netlist netlist = new Netlist();
+        netlist.cellCount = rows * cols;
+        netlist.branchKind = new int[branches];
+        netlist.branchFrom = new int[branches];
+        netlist.branchTo = new int[branches];
+        netlist.branchValue = new double[branches];
+        netlist.branchCell = new int[branches];
+        netlist.elementKind = new int[elements];
+        netlist.elementNode = new int[elements];
+        netlist.elementCell = new int[elements];
+
+        // Only terminals that carry a branch or a source/ground get a node id.
+        int[] nodeOf = new int[parent.length];
+        java.util.Arrays.fill(nodeOf, -1);
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Component comp = board.getComponent(r, c);
+                int base = (r * cols + c) * 4;
+
+                if (comp instanceof Source || comp instanceof Destination || comp instanceof Bulb) {
+                    int ports = comp.getPortMask();
+                    if (ports == 0) continue;
+                    int i = netlist.elementCount++;
+                    netlist.elementKind[i] = comp instanceof Source ? SOURCE : comp instanceof Destination ? DESTINATION : BULB;
+                    netlist.elementCell[i] = r * cols + c;
+                    netlist.elementNode[i] = netlist.nodeFor(parent, nodeOf, base + Integer.numberOfTrailingZeros(ports));
+                    if (base + Integer.numberOfTrailingZeros(ports) == sourceTerminal) netlist.sourceVoltage = comp.getVoltage();
+                    continue;
+                }
+                if (!(comp instanceof Resistor) && !(comp instanceof Capacitor)) continue;
+
+                boolean vertical = (comp.getPortMask() & ConnectionLogic.TOP) != 0;
+                int a = vertical ? base + TOP : base + RIGHT;
+                int b = vertical ? base + BOTTOM : base + LEFT;
+
+                int i = netlist.branchCount++;
+                if (comp instanceof Resistor) {
+                    netlist.branchKind[i] = RESISTOR;
+                    netlist.branchValue[i] = ((Resistor) comp).getResistance();
+                } else {
+                    netlist.branchKind[i] = CAPACITOR;
+                    netlist.branchValue[i] = ((Capacitor) comp).getCapacitance();
+                }
+                netlist.branchFrom[i] = netlist.nodeFor(parent, nodeOf, a);
+                netlist.branchTo[i] = netlist.nodeFor(parent, nodeOf, b);
+                netlist.branchCell[i] = r * cols + c;
+            }
+        }
+
+        if (sourceTerminal != -1) netlist.sourceNode = netlist.nodeFor(parent, nodeOf, sourceTerminal);
+        if (groundTerminal != -1) netlist.groundNode = netlist.nodeFor(parent, nodeOf, groundTerminal);
+        netlist.connectComponents();
+        return netlist;
+    }
+
+    private void connectComponents() {
+        componentOf = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) componentOf[i] = i;
+        for (int b = 0; b < branchCount; b++) union(componentOf, branchFrom[b], branchTo[b]);
+        for (int i = 0; i < nodeCount; i++) componentOf[i] = find(componentOf, i);
+    }
+
+    private int nodeFor(int[] parent, int[] nodeOf, int terminal) {
+        int root = find(parent, terminal);
+        if (nodeOf[root] == -1) nodeOf[root] = nodeCount++;
+        return nodeOf[root];
+    }
+
+    static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) parent[rootA] = rootB;
+    }
+
+    // True when some chain of branches joins the Source to the Destination
+    public boolean isConnected() {
+        return sourceNode != -1 && groundNode != -1 && componentOf[sourceNode] == componentOf[groundNode];
+    }
+
+    // True when the node is joined to the Source through branches
+    public boolean reachesSource(int node) {
+        return sourceNode != -1 && componentOf[node] == componentOf[sourceNode];
+    }
+
+    public int getNodeCount() { return nodeCount; }
+    public int getCellCount() { return cellCount; }
+    public double getSourceVoltage() { return sourceVoltage; }
+    public int getSourceNode() { return sourceNode; }
+    public int getGroundNode() { return groundNode; }
+    public int getBranchCount() { return branchCount; }
+    public int getBranchKind(int branch) { return branchKind[branch]; }
+    public int getBranchFrom(int branch) { return branchFrom[branch]; }
+    public int getBranchTo(int branch) { return branchTo[branch]; }
+    public double getBranchValue(int branch) { return branchValue[branch]; }
+    public int getBranchCell(int branch) { return branchCell[branch]; }
+    public int getElementCount() { return elementCount; }
+    public int getElementKind(int element) { return elementKind[element]; }
+    public int getElementNode(int element) { return elementNode[element]; }
+    public int getElementCell(int element) { return elementCell[element]; }
+}
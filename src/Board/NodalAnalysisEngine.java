@@ -0,0 +1,176 @@
+package src.Board;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+public class NodalAnalysisEngine implements CircuitEngine {
+    private static final double TOLERANCE = 1e-12;
+    private static final BooleanSupplier NEVER = () -> false;
+
+    @Override
+    public double calculateTotalResistance(Netlist netlist) {
+        return calculateTotalResistance(netlist, NEVER);
+    }
+
+    @Override
+    public double calculateTotalCapacitance(Netlist netlist) {
+        return calculateTotalCapacitance(netlist, NEVER);
+    }
+
+    @Override
+    public double calculateTotalResistance(Netlist netlist, BooleanSupplier cancelled) {
+        // Inject 1 A at the source: the source voltage is the equivalent resistance.
+        double v = solve(netlist, Netlist.RESISTOR, cancelled);
+        if (Double.isNaN(v)) return 0.0;
+        return v;
+    }
+
+    @Override
+    public double calculateTotalCapacitance(Netlist netlist, BooleanSupplier cancelled) {
+        // Same system with capacitance as admittance: the source "voltage" is 1 / C.
+        double v = solve(netlist, Netlist.CAPACITOR, cancelled);
+        if (Double.isNaN(v) || v == 0.0) return 0.0;
+        return 1.0 / v;
+    }
+
+    // Solves the reduced Laplacian L v = e_source with ground fixed at 0.
+    // Branches of the other kind are shorted. Returns NaN when the terminals are not connected.
+    private double solve(Netlist netlist, int kind, BooleanSupplier cancelled) {
+        int source = netlist.getSourceNode();
+        int ground = netlist.getGroundNode();
+        if (source == -1 || ground == -1) return Double.NaN;
+
+        int nodes = netlist.getNodeCount();
+        int branches = netlist.getBranchCount();
+
+        // 1. Short the branches that do not take part in this analysis
+        int[] parent = new int[nodes];
+        for (int i = 0; i < nodes; i++) parent[i] = i;
+        for (int b = 0; b < branches; b++) {
+            boolean shorted = netlist.getBranchKind(b) != kind;
+            if (kind == Netlist.RESISTOR && netlist.getBranchValue(b) <= 0) shorted = true;
+            if (shorted) Netlist.union(parent, netlist.getBranchFrom(b), netlist.getBranchTo(b));
+        }
+
+        int s = Netlist.find(parent, source);
+        int g = Netlist.find(parent, ground);
+        if (s == g) return 0.0;
+
+        // 2. Collect weighted edges and node adjacency (CSR) between contracted nodes
+        int[] degree = new int[nodes];
+        int edges = 0;
+        for (int b = 0; b < branches; b++) {
+            if (!isEdge(netlist, parent, b, kind)) continue;
+            degree[Netlist.find(parent, netlist.getBranchFrom(b))]++;
+            degree[Netlist.find(parent, netlist.getBranchTo(b))]++;
+            edges++;
+        }
+        if (edges == 0) return Double.NaN;
+
+        int[] start = new int[nodes + 1];
+        for (int i = 0; i < nodes; i++) start[i + 1] = start[i] + degree[i];
+        int[] fill = Arrays.copyOf(start, nodes);
+        int[] neighbor = new int[edges * 2];
+        double[] weight = new double[edges * 2];
+        for (int b = 0; b < branches; b++) {
+            if (!isEdge(netlist, parent, b, kind)) continue;
+            int u = Netlist.find(parent, netlist.getBranchFrom(b));
+            int v = Netlist.find(parent, netlist.getBranchTo(b));
+            double w = kind == Netlist.RESISTOR ? 1.0 / netlist.getBranchValue(b) : netlist.getBranchValue(b);
+            neighbor[fill[u]] = v; weight[fill[u]++] = w;
+            neighbor[fill[v]] = u; weight[fill[v]++] = w;
+        }
+
+        // 3. Number the unknowns: nodes reachable from the source, ground excluded
+        int[] index = new int[nodes];
+        Arrays.fill(index, -1);
+        int[] stack = new int[nodes];
+        int top = 0, unknowns = 0;
+        boolean groundReached = false;
+        stack[top++] = s;
+        index[s] = unknowns++;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int e = start[u]; e < start[u + 1]; e++) {
+                int v = neighbor[e];
+                if (v == g) { groundReached = true; continue; }
+                if (index[v] == -1) {
+                    index[v] = unknowns++;
+                    stack[top++] = v;
+                }
+            }
+        }
+        if (!groundReached) return Double.NaN;
+
+        int[] nodeOf = new int[unknowns];
+        for (int i = 0; i < nodes; i++) {
+            if (index[i] != -1) nodeOf[index[i]] = i;
+        }
+
+        double[] diagonal = new double[unknowns];
+        for (int i = 0; i < unknowns; i++) {
+            int u = nodeOf[i];
+            for (int e = start[u]; e < start[u + 1]; e++) diagonal[i] += weight[e];
+        }
+
+        double[] rhs = new double[unknowns];
+        rhs[index[s]] = 1.0;
+        double[] x = conjugateGradient(start, neighbor, weight, index, nodeOf, diagonal, rhs, cancelled);
+        return x[index[s]];
+    }
+
+    private static boolean isEdge(Netlist netlist, int[] parent, int b, int kind) {
+        if (netlist.getBranchKind(b) != kind || netlist.getBranchValue(b) <= 0) return false;
+        return Netlist.find(parent, netlist.getBranchFrom(b)) != Netlist.find(parent, netlist.getBranchTo(b));
+    }
+
+    // Jacobi-preconditioned conjugate gradient; the reduced Laplacian is symmetric positive definite.
+    // Cancellation is checked once per iteration.
+    private static double[] conjugateGradient(int[] start, int[] neighbor, double[] weight, int[] index,
+                                              int[] nodeOf, double[] diagonal, double[] rhs,
+                                              BooleanSupplier cancelled) {
+        int n = rhs.length;
+        double[] x = new double[n];
+        double[] r = rhs.clone();
+        double[] z = new double[n];
+        double[] p = new double[n];
+        double[] q = new double[n];
+
+        for (int i = 0; i < n; i++) z[i] = r[i] / diagonal[i];
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z);
+        double limit = TOLERANCE * TOLERANCE * dot(rhs, rhs);
+
+        for (int iter = 0; iter < 10 * n + 10 && dot(r, r) > limit; iter++) {
+            if (cancelled.getAsBoolean()) throw new CancellationException("Nodal analysis cancelled");
+            // q = L p (ground and unreachable nodes contribute nothing)
+            for (int i = 0; i < n; i++) {
+                double sum = diagonal[i] * p[i];
+                int u = nodeOf[i];
+                for (int e = start[u]; e < start[u + 1]; e++) {
+                    int j = index[neighbor[e]];
+                    if (j != -1) sum -= weight[e] * p[j];
+                }
+                q[i] = sum;
+            }
+            double alpha = rz / dot(p, q);
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+                z[i] = r[i] / diagonal[i];
+            }
+            double rzNext = dot(r, z);
+            double beta = rzNext / rz;
+            rz = rzNext;
+            for (int i = 0; i < n; i++) p[i] = z[i] + beta * p[i];
+        }
+        return x;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+}
@@ -0,0 +1,48 @@
+package src.Board;
+
+import src.Component.Component;
+
+// One Component reference per cell.
+class ObjectCellStorage implements CellStorage {
+    private final Component[] cells;
+
+    ObjectCellStorage(int size) {
+        this.cells = new Component[size];
+    }
+
+    @Override
+    public Component get(int cell) {
+        return cells[cell];
+    }
+
+    @Override
+    public int portMask(int cell) {
+        Component comp = cells[cell];
+        return comp == null ? 0 : comp.getPortMask();
+    }
+
+    @Override
+    public void set(int cell, Component component) {
+        cells[cell] = component;
+    }
+
+    @Override
+    public void rotate(int cell) {
+        cells[cell].rotate();
+    }
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(cells, null);
+    }
+
+    @Override
+    public boolean keepsInstance(Component component) {
+        return true;
+    }
+
+    @Override
+    public boolean holds(int cell, Component component) {
+        return cells[cell] == component;
+    }
+}
@@ -0,0 +1,141 @@
+package src.Board;
+
+import src.Component.*;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// Struct-of-arrays cells: a kind byte, a rotation byte and a value per cell, plus bit sets for
+// the locked and non-rotatable flags. Components are handed out as views:
+//  - wires and blocks are shared flyweights, one per kind, rotation and lock state;
+//  - resistors and capacitors are rebuilt from the stored value on every get();
+//  - the Source, Destination and Bulb keep the placed instance, since they carry state
+//    (voltage, lit) and the game looks them up by identity.
+// Views are read-only (their mutators throw); change the cells through CircuitBoard.
+class PackedCellStorage implements CellStorage {
+    private static final ComponentType[] TYPES = ComponentType.values();
+
+    private final byte[] kinds;     // ComponentType ordinal + 1, 0 when empty
+    private final byte[] rotations; // rotation / 90
+    private final double[] values;
+    private final BitSet locked = new BitSet();
+    private final BitSet fixed = new BitSet(); // canRotate() == false
+    private final Map<Integer, Component> instances = new HashMap<>();
+    private final Component[][] flyweights = new Component[TYPES.length * 4][];
+
+    PackedCellStorage(int size) {
+        this.kinds = new byte[size];
+        this.rotations = new byte[size];
+        this.values = new double[size];
+    }
+
+    @Override
+    public Component get(int cell) {
+        if (kinds[cell] == 0) return null;
+        ComponentType type = TYPES[kinds[cell] - 1];
+        switch (type) {
+            case SOURCE:
+            case DESTINATION:
+            case BULB:
+                return instances.get(cell);
+            case RESISTOR:
+            case CAPACITOR:
+                return view(type, cell);
+            default:
+                return flyweight(type, cell);
+        }
+    }
+
+    @Override
+    public int portMask(int cell) {
+        if (kinds[cell] == 0) return 0;
+        return TYPES[kinds[cell] - 1].portMask(rotations[cell] * 90);
+    }
+
+    @Override
+    public void set(int cell, Component component) {
+        instances.remove(cell);
+        locked.clear(cell);
+        fixed.clear(cell);
+        values[cell] = 0;
+        rotations[cell] = 0;
+        if (component == null) {
+            kinds[cell] = 0;
+            return;
+        }
+
+        ComponentType type = component.getType();
+        if (type == null) throw new IllegalArgumentException("Unknown component: " + component);
+        kinds[cell] = (byte) (type.ordinal() + 1);
+        rotations[cell] = (byte) (component.getRotationDegree() / 90);
+        locked.set(cell, component.isLocked());
+        fixed.set(cell, !component.canRotate());
+
+        if (component instanceof Resistor) values[cell] = ((Resistor) component).getResistance();
+        else if (component instanceof Capacitor) values[cell] = ((Capacitor) component).getCapacitance();
+        else if (keepsInstance(component)) instances.put(cell, component);
+    }
+
+    @Override
+    public void rotate(int cell) {
+        Component instance = instances.get(cell);
+        if (instance != null) {
+            rotations[cell] = (byte) (instance.rotate() / 90);
+        } else {
+            rotations[cell] = (byte) ((rotations[cell] + 1) & 3);
+        }
+    }
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(kinds, (byte) 0);
+        java.util.Arrays.fill(rotations, (byte) 0);
+        java.util.Arrays.fill(values, 0);
+        locked.clear();
+        fixed.clear();
+        instances.clear();
+    }
+
+    @Override
+    public boolean keepsInstance(Component component) {
+        return component instanceof Source || component instanceof Destination || component instanceof Bulb;
+    }
+
+    @Override
+    public boolean holds(int cell, Component component) {
+        if (kinds[cell] == 0 || component == null) return false;
+        if (!component.isReadOnly()) return instances.get(cell) == component;
+        Component view = get(cell);
+        if (view == component) return true;
+        if (view.getType() != component.getType() || view.getRotationDegree() != component.getRotationDegree()
+                || view.isLocked() != component.isLocked() || view.canRotate() != component.canRotate()) {
+            return false;
+        }
+        if (component instanceof Resistor) return ((Resistor) component).getResistance() == values[cell];
+        if (component instanceof Capacitor) return ((Capacitor) component).getCapacitance() == values[cell];
+        return true;
+    }
+
+    private Component view(ComponentType type, int cell) {
+        Component view = type.create(values[cell]);
+        for (int i = rotations[cell]; i > 0; i--) view.rotate();
+        view.setLocked(locked.get(cell));
+        view.setCanRotate(!fixed.get(cell));
+        view.setReadOnly();
+        return view;
+    }
+
+    // Shared per kind, lock flag and rotate flag, then per rotation
+    private Component flyweight(ComponentType type, int cell) {
+        int row = type.ordinal() * 4 + (locked.get(cell) ? 1 : 0) + (fixed.get(cell) ? 2 : 0);
+        if (flyweights[row] == null) flyweights[row] = new Component[4];
+        int rotation = rotations[cell];
+        Component shared = flyweights[row][rotation];
+        if (shared == null) {
+            shared = view(type, cell);
+            flyweights[row][rotation] = shared;
+        }
+        return shared;
+    }
+}
@@ -1,10 +1,6 @@
 package src.Board;
 
 import src.Component.*;
-import src.Utils.ConnectionLogic;
-
-import java.util.ArrayList;
-import java.util.List;
 
 public class ParallelBoard extends CircuitBoard {
 
@@ -51,48 +47,4 @@ public class ParallelBoard extends CircuitBoard {
         placeComponent(3, 4, Block_10);
         placeComponent(4, 4, Block_11);
     }
-
-    @Override
-    public double calculateTotalResistance(List<Component> activeComponents) {
-        List<Resistor> resistors = new ArrayList<>();
-
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Component comp = getComponent(r, c);
-                if (comp instanceof Resistor) {
-                    if (ConnectionLogic.getFlowCount(this, comp) >= 2) {
-                        resistors.add((Resistor) comp);
-                    }
-                }
-            }
-        }
-
-        if (resistors.isEmpty()) return 0.0;
-        if (resistors.size() == 1) return resistors.get(0).getResistance();
-
-        double inverseSum = 0.0;
-        for (Resistor r : resistors) {
-            double val = r.getResistance();
-            if (val > 0) inverseSum += (1.0 / val);
-        }
-
-        if (inverseSum == 0) return 0.0;
-        return 1.0 / inverseSum;
-    }
-
-    @Override
-    public double calculateTotalCapacitance(List<Component> activeComponents) {
-        double sum = 0.0;
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Component comp = getComponent(r, c);
-                if (comp instanceof Capacitor) {
-                    if (ConnectionLogic.getFlowCount(this, comp) >= 2) {
-                        sum += ((Capacitor) comp).getCapacitance();
-                    }
-                }
-            }
-        }
-        return sum;
-    }
 }
\ No newline at end of file
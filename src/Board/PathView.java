@@ -0,0 +1,41 @@
+package src.Board;
+
+import src.Component.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of CircuitBoard.searchValidPath: the cells reached from the Source in BFS order.
+// The board owns and reuses it, so it is only valid until the next search or edit.
+public class PathView {
+    private final CircuitBoard board;
+    private final int[] cells;
+    private int size;
+    private boolean valid;
+
+    PathView(CircuitBoard board, int[] cells) {
+        this.board = board;
+        this.cells = cells;
+    }
+
+    void set(int size, boolean valid) {
+        this.size = size;
+        this.valid = valid;
+    }
+
+    // True when the Destination was reached
+    public boolean isValid() { return valid; }
+    public int size() { return size; }
+    public int getCell(int i) { return cells[i]; }
+    public int getRow(int i) { return cells[i] / board.getCols(); }
+    public int getCol(int i) { return cells[i] % board.getCols(); }
+    public Component getComponent(int i) { return board.getComponent(getRow(i), getCol(i)); }
+
+    // Copy in the shape getValidPath returns: null unless the Destination was reached
+    public List<Component> toList() {
+        if (!valid) return null;
+        List<Component> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) components.add(getComponent(i));
+        return components;
+    }
+}
@@ -1,10 +1,6 @@
 package src.Board;
 
 import src.Component.*;
-import src.Utils.ConnectionLogic;
-
-import java.util.ArrayList;
-import java.util.List;
 
 public class SeriesBoard extends CircuitBoard {
 
@@ -14,18 +10,6 @@ public class SeriesBoard extends CircuitBoard {
         this.maxCapacitors = 1;
     }
 
-    public double calculateTotalResistance(){
-        double sum = 0.0;
-        for (int i = 0; i < rows; i++){
-            for(int j = 0; j < cols; j++){
-                if(grid[i][j] instanceof Resistor){
-                    sum += ((Resistor) grid[i][j]).getResistance();
-                }
-            }
-        }
-        return sum;
-    }
-
     @Override
     protected void presetComponent() {
         Source Source = new Source("Source", 10.0);
@@ -56,41 +40,4 @@ public class SeriesBoard extends CircuitBoard {
         placeComponent(1, 5, Block_7);
         placeComponent(2, 5, Block_8);
     }
-
-    @Override
-    public double calculateTotalResistance(List<Component> activeComponents) {
-        double sum = 0.0;
-        for (int i = 0; i < rows; i++){
-            for(int j = 0; j < cols; j++){
-                Component comp = grid[i][j];
-                if(comp instanceof Resistor){
-                    if (ConnectionLogic.getFlowCount(this, comp) >= 2) {
-                        sum += ((Resistor) comp).getResistance();
-                    }
-                }
-            }
-        }
-        return sum;
-    }
-    @Override
-    public double calculateTotalCapacitance(List<Component> activeComponents) {
-        List<Capacitor> caps = new ArrayList<>();
-        for (Component comp : activeComponents) {
-            if (comp instanceof Capacitor) {
-                caps.add((Capacitor) comp);
-            }
-        }
-
-        if (caps.isEmpty()) return 0.0;
-        if (caps.size() == 1) return caps.get(0).getCapacitance();
-
-        double inverseSum = 0.0;
-        for (Capacitor c : caps) {
-            double val = c.getCapacitance();
-            if (val > 0) inverseSum += (1.0 / val);
-        }
-
-        if (inverseSum == 0) return 0.0;
-        return 1.0 / inverseSum;
-    }
 }
\ No newline at end of file
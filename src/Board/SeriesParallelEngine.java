@@ -0,0 +1,292 @@
+package src.Board;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Exact equivalent R and C by series-parallel reduction, in time linear in the netlist.
+// Each analysis shorts the other branch kind (as NodalAnalysisEngine does), then repeatedly
+// merges parallel branches, folds nodes with two branches into one series branch and drops
+// dangling branches, until only Source and Destination are left. Networks that do not reduce
+// that far (bridges) are handed to the fallback engine.
+public class SeriesParallelEngine implements CircuitEngine {
+    private static final BooleanSupplier NEVER = () -> false;
+    // Reduction steps between cancellation checks
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final CircuitEngine fallback;
+    // Shared engines are reached from several threads through boards and caches
+    private final LongAdder reduced = new LongAdder();
+    private final LongAdder fellBack = new LongAdder();
+
+    public SeriesParallelEngine() {
+        this(new NodalAnalysisEngine());
+    }
+
+    public SeriesParallelEngine(CircuitEngine fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public double calculateTotalResistance(Netlist netlist) {
+        return calculateTotalResistance(netlist, NEVER);
+    }
+
+    @Override
+    public double calculateTotalCapacitance(Netlist netlist) {
+        return calculateTotalCapacitance(netlist, NEVER);
+    }
+
+    @Override
+    public double calculateTotalResistance(Netlist netlist, BooleanSupplier cancelled) {
+        double conductance = reduce(netlist, Netlist.RESISTOR, cancelled);
+        if (Double.isNaN(conductance)) {
+            fellBack.increment();
+            return fallback.calculateTotalResistance(netlist, cancelled);
+        }
+        reduced.increment();
+        if (conductance == 0.0 || Double.isInfinite(conductance)) return 0.0;
+        return 1.0 / conductance;
+    }
+
+    @Override
+    public double calculateTotalCapacitance(Netlist netlist, BooleanSupplier cancelled) {
+        double capacitance = reduce(netlist, Netlist.CAPACITOR, cancelled);
+        if (Double.isNaN(capacitance)) {
+            fellBack.increment();
+            return fallback.calculateTotalCapacitance(netlist, cancelled);
+        }
+        reduced.increment();
+        if (Double.isInfinite(capacitance)) return 0.0;
+        return capacitance;
+    }
+
+    // Analyses answered by reduction and by the fallback engine since creation
+    public long getReducedCount() { return reduced.sum(); }
+    public long getFallbackCount() { return fellBack.sum(); }
+
+    public static boolean isSeriesParallel(Netlist netlist) {
+        return !Double.isNaN(reduce(netlist, Netlist.RESISTOR)) && !Double.isNaN(reduce(netlist, Netlist.CAPACITOR));
+    }
+
+    // Equivalent admittance between Source and Destination for one branch kind: conductance
+    // (1/R) for resistors, capacitance for capacitors. 0 when they are not connected, infinite
+    // when shorted, NaN when the network is not series-parallel.
+    public static double reduce(Netlist netlist, int kind) {
+        return reduce(netlist, kind, NEVER);
+    }
+
+    // Throws a CancellationException once `cancelled` is true, checked every CHECK_INTERVAL steps
+    public static double reduce(Netlist netlist, int kind, BooleanSupplier cancelled) {
+        int source = netlist.getSourceNode();
+        int ground = netlist.getGroundNode();
+        if (source == -1 || ground == -1) return 0.0;
+
+        int nodes = netlist.getNodeCount();
+        int branches = netlist.getBranchCount();
+
+        // 1. Short the other kind (and resistors of zero ohms)
+        int[] parent = new int[nodes];
+        for (int i = 0; i < nodes; i++) parent[i] = i;
+        for (int b = 0; b < branches; b++) {
+            boolean shorted = netlist.getBranchKind(b) != kind;
+            if (kind == Netlist.RESISTOR && netlist.getBranchValue(b) <= 0) shorted = true;
+            if (shorted) Netlist.union(parent, netlist.getBranchFrom(b), netlist.getBranchTo(b));
+        }
+        int s = Netlist.find(parent, source);
+        int g = Netlist.find(parent, ground);
+        if (s == g) return Double.POSITIVE_INFINITY;
+
+        Graph graph = new Graph(nodes, branches);
+        for (int b = 0; b < branches; b++) {
+            if (netlist.getBranchKind(b) != kind || netlist.getBranchValue(b) <= 0) continue;
+            int u = Netlist.find(parent, netlist.getBranchFrom(b));
+            int v = Netlist.find(parent, netlist.getBranchTo(b));
+            if (u == v) continue;
+            double value = netlist.getBranchValue(b);
+            graph.addEdge(u, v, kind == Netlist.RESISTOR ? 1.0 / value : value);
+        }
+
+        // 2. Only the part connected to the Source carries current
+        if (!graph.keepComponentOf(s, g)) return 0.0;
+
+        // 3. Reduce until nothing changes
+        graph.reduce(s, g, cancelled);
+        return graph.remainingAdmittance(s, g);
+    }
+
+    // Multigraph with lazily deleted edges. Every node keeps a singly linked list of incident
+    // half-edges; a series fold re-uses one of the two edges, so at most one extra half-edge is
+    // needed per original edge.
+    private static class Graph {
+        private final int[] edgeU;
+        private final int[] edgeV;
+        private final double[] weight;
+        private final boolean[] dead;
+        private int edges;
+
+        private final int[] head;
+        private final int[] halfNext;
+        private final int[] halfEdge;
+        private int halves;
+
+        private final int[] degree;
+        private final boolean[] removed;
+        private final int[] mark;
+        private final int[] firstEdge;
+        private int stamp;
+
+        Graph(int nodes, int capacity) {
+            edgeU = new int[capacity];
+            edgeV = new int[capacity];
+            weight = new double[capacity];
+            dead = new boolean[capacity];
+            head = new int[nodes];
+            halfNext = new int[capacity * 3];
+            halfEdge = new int[capacity * 3];
+            degree = new int[nodes];
+            removed = new boolean[nodes];
+            mark = new int[nodes];
+            firstEdge = new int[nodes];
+            java.util.Arrays.fill(head, -1);
+        }
+
+        void addEdge(int u, int v, double w) {
+            int e = edges++;
+            edgeU[e] = u;
+            edgeV[e] = v;
+            weight[e] = w;
+            link(u, e);
+            link(v, e);
+            degree[u]++;
+            degree[v]++;
+        }
+
+        private void link(int node, int e) {
+            int h = halves++;
+            halfEdge[h] = e;
+            halfNext[h] = head[node];
+            head[node] = h;
+        }
+
+        private int other(int e, int node) {
+            return edgeU[e] == node ? edgeV[e] : edgeU[e];
+        }
+
+        private void kill(int e) {
+            dead[e] = true;
+            degree[edgeU[e]]--;
+            degree[edgeV[e]]--;
+        }
+
+        // Marks every node outside the component of s as removed; false if g is not in it
+        boolean keepComponentOf(int s, int g) {
+            boolean[] seen = new boolean[degree.length];
+            int[] stack = new int[degree.length];
+            int top = 0;
+            stack[top++] = s;
+            seen[s] = true;
+            while (top > 0) {
+                int u = stack[--top];
+                for (int h = head[u]; h != -1; h = halfNext[h]) {
+                    int v = other(halfEdge[h], u);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        stack[top++] = v;
+                    }
+                }
+            }
+            for (int u = 0; u < removed.length; u++) removed[u] = !seen[u];
+            return seen[g];
+        }
+
+        void reduce(int s, int g, BooleanSupplier cancelled) {
+            int[] work = new int[degree.length];
+            boolean[] queued = new boolean[degree.length];
+            int top = 0;
+            for (int u = 0; u < degree.length; u++) {
+                if (removed[u]) continue;
+                work[top++] = u;
+                queued[u] = true;
+            }
+
+            int steps = 0;
+            while (top > 0) {
+                if (++steps % CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                    throw new CancellationException("Series-parallel reduction cancelled");
+                }
+                int x = work[--top];
+                queued[x] = false;
+                if (removed[x]) continue;
+
+                // Parallel: keep one edge per neighbour, summing the admittances into it
+                stamp++;
+                int previous = -1;
+                for (int h = head[x]; h != -1; h = halfNext[h]) {
+                    int e = halfEdge[h];
+                    boolean drop = dead[e];
+                    if (!drop) {
+                        int y = other(e, x);
+                        if (mark[y] == stamp) {
+                            weight[firstEdge[y]] += weight[e];
+                            kill(e);
+                            if (!queued[y]) { work[top++] = y; queued[y] = true; }
+                            drop = true;
+                        } else {
+                            mark[y] = stamp;
+                            firstEdge[y] = e;
+                        }
+                    }
+                    if (drop) {
+                        if (previous == -1) head[x] = halfNext[h];
+                        else halfNext[previous] = halfNext[h];
+                    } else {
+                        previous = h;
+                    }
+                }
+                if (x == s || x == g || degree[x] > 2) continue;
+
+                int e1 = head[x] == -1 ? -1 : halfEdge[head[x]];
+                if (degree[x] == 0) {
+                    removed[x] = true;
+                } else if (degree[x] == 1) {
+                    // Dangling: no current flows through it
+                    int y = other(e1, x);
+                    kill(e1);
+                    removed[x] = true;
+                    if (!queued[y]) { work[top++] = y; queued[y] = true; }
+                } else {
+                    // Series: x - a and x - b become a - b
+                    int e2 = halfEdge[halfNext[head[x]]];
+                    int a = other(e1, x);
+                    int b = other(e2, x);
+                    double w1 = weight[e1];
+                    double w2 = weight[e2];
+                    kill(e2);
+                    degree[b]++; // e1 now ends at b instead of x
+                    degree[x]--;
+                    if (edgeU[e1] == x) edgeU[e1] = b; else edgeV[e1] = b;
+                    weight[e1] = w1 * w2 / (w1 + w2);
+                    link(b, e1);
+                    removed[x] = true;
+                    if (!queued[a]) { work[top++] = a; queued[a] = true; }
+                    if (!queued[b]) { work[top++] = b; queued[b] = true; }
+                }
+            }
+        }
+
+        // Sum of the edges left between s and g, or NaN if any other node survived
+        double remainingAdmittance(int s, int g) {
+            double total = 0.0;
+            for (int e = 0; e < edges; e++) {
+                if (dead[e]) continue;
+                int u = edgeU[e];
+                int v = edgeV[e];
+                if (removed[u] || removed[v]) continue;
+                if (!((u == s && v == g) || (u == g && v == s))) return Double.NaN;
+                total += weight[e];
+            }
+            return total;
+        }
+    }
+}
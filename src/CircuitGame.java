@@ -1,12 +1,31 @@
 package src;
 
+import src.Board.BoardChange;
+import src.Board.BoardHistory;
+import src.Board.BoardListener;
 import src.Board.CircuitBoard;
+import src.Board.CustomBoard;
+import src.Board.Evaluation;
+import src.Board.Netlist;
 import src.Board.ParallelBoard;
 import src.Board.SeriesBoard;
 import src.Component.*;
-import src.Utils.ConnectionLogic;
-import src.Utils.GuiUtils;
+import src.Level.Level;
+import src.Level.LevelGenerator;
+import src.Level.LevelPack;
+import src.Metrics.LogSink;
+import src.Metrics.Metrics;
+import src.Metrics.TimerStats;
+import src.Simulation.Preview;
+import src.Simulation.PreviewEvaluator;
+import src.Simulation.SimulationFrame;
+import src.Simulation.SimulationScheduler;
+import src.View.BoardView;
+import src.View.CanvasBoardView;
+import src.View.FxWatchdog;
+import src.View.GridBoardView;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -15,25 +34,59 @@ import javafx.scene.input.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.StrokeType;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
 import javafx.util.Duration;
 
 public class CircuitGame extends Application {
 
     private CircuitBoard board;
-    private GridPane gridView;
+    // The board onBoardChanged is registered with; one listener object so it can be removed
+    private CircuitBoard listenedBoard;
+    private final BoardListener boardListener = this::onBoardChanged;
+    private BoardHistory history;
+    // Bumped by every level load, so a generated level that finishes late is dropped
+    private long generateRequest;
+    // Boards above this many cells are drawn on a canvas instead of one node per cell
+    private static final int CANVAS_THRESHOLD = 400;
+    private static final int REDRAW_ALL_THRESHOLD = 64;
+
+    private BoardView gridView;
+    private ScrollPane gridScroll;
+    private GridBoardView nodeView;
+    private CanvasBoardView canvasView;
+    private SplitPane splitPane;
+    private CheckMenuItem itemCanvas;
     private Label statusLabel;
+    // Optional pulse and handler timing summary at the right of the status bar
+    private Label frameLabel;
+    private Timeline frameRefresh;
+    private FxWatchdog watchdog;
 
     private TextField valueInput;
     private TextArea propertiesArea;
     private boolean isSimulationSuccess = false;
 
+    // Transient playback: solved on a background thread, drawn from an AnimationTimer
+    private final SimulationScheduler scheduler = new SimulationScheduler();
+    // Live preview after each edit, evaluated off the FX thread
+    private final PreviewEvaluator preview = new PreviewEvaluator(
+            result -> Platform.runLater(() -> watchdog.run("preview", () -> showPreview(result))));
+    private AnimationTimer playback;
+    private long lastFrameSequence = -1;
+    private java.util.List<int[]> bulbCells = new java.util.ArrayList<>();
+    private String playbackStatus = "";
+
     @Override
     public void start(Stage primaryStage) {
+        Metrics.registerMBean();
+        watchdog = new FxWatchdog(this::onStall);
         BorderPane root = new BorderPane();
 
         // Menu
@@ -41,17 +94,39 @@ public class CircuitGame extends Application {
         Menu menuGame = new Menu("Game");
         MenuItem itemSelectLevel = new MenuItem("Select Level");
         itemSelectLevel.setOnAction(e -> showLevelSelectDialog());
+        MenuItem itemOpenPack = new MenuItem("Open Level Pack...");
+        itemOpenPack.setOnAction(e -> showLevelPackDialog(primaryStage));
+        MenuItem itemGenerate = new MenuItem("Generate Level...");
+        itemGenerate.setOnAction(e -> showGenerateDialog());
         MenuItem itemExit = new MenuItem("Exit");
         itemExit.setOnAction(e -> primaryStage.close());
-        menuGame.getItems().addAll(itemSelectLevel, new SeparatorMenuItem(), itemExit);
-        menuBar.getMenus().add(menuGame);
+        menuGame.getItems().addAll(itemSelectLevel, itemOpenPack, itemGenerate, new SeparatorMenuItem(), itemExit);
+        Menu menuEdit = new Menu("Edit");
+        MenuItem itemUndo = new MenuItem("Undo");
+        itemUndo.setAccelerator(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN));
+        itemUndo.setOnAction(watchdog.handler("undo", e -> undo()));
+        MenuItem itemRedo = new MenuItem("Redo");
+        itemRedo.setAccelerator(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN));
+        itemRedo.setOnAction(watchdog.handler("redo", e -> redo()));
+        menuEdit.setOnShowing(e -> {
+            itemUndo.setDisable(history == null || !history.canUndo());
+            itemRedo.setDisable(history == null || !history.canRedo());
+        });
+        menuEdit.getItems().addAll(itemUndo, itemRedo);
+        Menu menuView = new Menu("View");
+        itemCanvas = new CheckMenuItem("Canvas Renderer");
+        itemCanvas.setOnAction(watchdog.handler("renderer", e -> showBoard()));
+        CheckMenuItem itemFrameTimes = new CheckMenuItem("Frame Times");
+        itemFrameTimes.setOnAction(e -> showFrameTimes(itemFrameTimes.isSelected()));
+        menuView.getItems().addAll(itemCanvas, itemFrameTimes);
+        menuBar.getMenus().addAll(menuGame, menuEdit, menuView);
         
         Button btnRun = new Button("▶ Run Circuit");
         btnRun.setStyle("-fx-base: #90ee90; -fx-font-weight: bold;");
-        btnRun.setOnAction(e -> runCircuitSimulation());
+        btnRun.setOnAction(watchdog.handler("run", e -> runCircuitSimulation()));
 
         Button btnReset = new Button("↺ Reset Level");
-        btnReset.setOnAction(e -> resetLevel());
+        btnReset.setOnAction(watchdog.handler("reset", e -> resetLevel()));
 
         ToolBar toolbar = new ToolBar(btnRun, new Separator(), btnReset);
         
@@ -97,17 +172,30 @@ public class CircuitGame extends Application {
         );
 
         // Workspace
-        gridView = new GridPane();
-        gridView.setAlignment(Pos.CENTER);
-        gridView.setHgap(5);
-        gridView.setVgap(5);
-        
-        ScrollPane gridScroll = new ScrollPane(gridView);
+        BoardView.CellActions cellActions = new BoardView.CellActions() {
+            @Override
+            public void onDrop(int row, int col, String type, double value) {
+                watchdog.run("drop", () -> handleDrop(row, col, type, value));
+            }
+            @Override
+            public void onPrimaryClick(int row, int col, javafx.scene.Node cell) {
+                watchdog.run("rotate", () -> rotateAt(row, col, cell));
+            }
+            @Override
+            public void onSecondaryClick(int row, int col) {
+                watchdog.run("remove", () -> handleRemove(row, col));
+            }
+        };
+        nodeView = new GridBoardView(cellActions);
+        canvasView = new CanvasBoardView(cellActions);
+        gridView = nodeView;
+
+        gridScroll = new ScrollPane(nodeView);
         gridScroll.setFitToWidth(true);
         gridScroll.setFitToHeight(true);
         gridScroll.setStyle("-fx-background-color: transparent;");
 
-        SplitPane splitPane = new SplitPane();
+        splitPane = new SplitPane();
         splitPane.getItems().addAll(gridScroll, sidebar);
         splitPane.setDividerPositions(0.75);
         
@@ -115,9 +203,26 @@ public class CircuitGame extends Application {
 
         statusLabel = new Label("Welcome! Select a level to start.");
         statusLabel.setPadding(new Insets(5));
-        root.setBottom(statusLabel);
+        frameLabel = new Label();
+        frameLabel.setPadding(new Insets(5));
+        frameLabel.setVisible(false);
+        frameLabel.setTooltip(new Tooltip("No stalls yet."));
+        BorderPane statusBar = new BorderPane();
+        statusBar.setLeft(statusLabel);
+        statusBar.setRight(frameLabel);
+        root.setBottom(statusBar);
+        frameRefresh = new Timeline(new KeyFrame(Duration.millis(500), e -> updateFrameTimes()));
+        frameRefresh.setCycleCount(Timeline.INDEFINITE);
+
+        playback = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                watchdog.run("playback", () -> showFrame(scheduler.latestFrame()));
+            }
+        };
 
         Scene scene = new Scene(root, 950, 700);
+        watchdog.install(scene);
         primaryStage.setTitle("Circuit Puzzle Game");
         primaryStage.setScene(scene);
         primaryStage.show();
@@ -143,21 +248,146 @@ public class CircuitGame extends Application {
             } else if (type == btnParallel) {
                 board = new ParallelBoard();
                 statusLabel.setText("Loaded: Parallel Level");
+            } else {
+                return; // cancelled: keep playing the current level
             }
+            startLevel();
+        });
+    }
 
-            if (board != null) {
-                isSimulationSuccess = false;
-                propertiesArea.setText("Goal: Light the bulb for exactly 5.0 seconds.");
-                updateGridDisplay();
+    // Opens a pack file and asks for a level number; only that level is decoded
+    private void showLevelPackDialog(Stage stage) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open Level Pack");
+        java.io.File file = chooser.showOpenDialog(stage);
+        if (file == null) return;
+
+        LevelPack pack;
+        try {
+            pack = LevelPack.open(file.toPath());
+        } catch (java.io.IOException e) {
+            statusLabel.setText("Could not open level pack: " + e.getMessage());
+            return;
+        }
+        if (pack.size() == 0) {
+            statusLabel.setText("Level pack is empty.");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("1");
+        dialog.setTitle("Select Level");
+        dialog.setHeaderText(file.getName() + ": " + pack.size() + " levels");
+        dialog.setContentText("Level (1-" + pack.size() + "):");
+        dialog.showAndWait().ifPresent(text -> {
+            int index;
+            try {
+                index = Integer.parseInt(text.trim()) - 1;
+            } catch (NumberFormatException e) {
+                index = -1;
+            }
+            if (index < 0 || index >= pack.size()) {
+                statusLabel.setText("No level " + text.trim() + " in this pack.");
+                return;
+            }
+            try {
+                Level level = pack.get(index);
+                board = new CustomBoard(level);
+                statusLabel.setText("Loaded: " + level.getName());
+                startLevel();
+            } catch (IllegalArgumentException e) {
+                statusLabel.setText("Could not load level: " + e.getMessage());
+            }
+        });
+    }
+
+    // Asks for a size and a seed; the same pair always gives the same level
+    private void showGenerateDialog() {
+        long seed = new java.util.Random().nextInt(1_000_000);
+        TextInputDialog dialog = new TextInputDialog("8 10 " + seed);
+        dialog.setTitle("Generate Level");
+        dialog.setHeaderText("A new level with at least one solution");
+        dialog.setContentText("Rows, columns and seed:");
+        dialog.showAndWait().ifPresent(text -> {
+            String[] fields = text.trim().split("\\s+");
+            try {
+                if (fields.length != 3) throw new IllegalArgumentException("Expected rows, columns and seed");
+                LevelGenerator generator = new LevelGenerator(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+                generateLevel(generator, Long.parseLong(fields[2]));
+            } catch (IllegalArgumentException e) {
+                statusLabel.setText("Could not generate level: " + e.getMessage());
             }
         });
     }
 
+    // Large levels take a while to carve and verify, so that happens off the FX thread.
+    // Only the most recent request is loaded.
+    private void generateLevel(LevelGenerator generator, long seed) {
+        long request = ++generateRequest;
+        statusLabel.setText("Generating level...");
+        Thread thread = new Thread(() -> {
+            try {
+                Level level = generator.generate(seed);
+                CustomBoard generated = new CustomBoard(level);
+                Platform.runLater(() -> watchdog.run("generate", () -> {
+                    if (request != generateRequest) return;
+                    board = generated;
+                    statusLabel.setText("Loaded: " + level.getName());
+                    startLevel();
+                }));
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    if (request == generateRequest) statusLabel.setText("Could not generate level: " + e.getMessage());
+                });
+            }
+        }, "level-generator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void startLevel() {
+        if (listenedBoard != board) {
+            if (listenedBoard != null) listenedBoard.removeListener(boardListener);
+            board.addListener(boardListener);
+            listenedBoard = board;
+        }
+        generateRequest++;
+        history = new BoardHistory(board);
+        preview.cancel();
+        preview.setEvaluationCache(board.getEvaluationCache());
+        stopPlayback();
+        isSimulationSuccess = false;
+        propertiesArea.setText("Goal: Light the bulb for exactly 5.0 seconds.");
+        showBoard();
+    }
+
+    // Picks the renderer for the current board and swaps it into the workspace
+    private void showBoard() {
+        boolean large = board != null && board.getRows() * board.getCols() > CANVAS_THRESHOLD;
+        BoardView view = (itemCanvas.isSelected() || large) ? canvasView : nodeView;
+        javafx.scene.Node workspace = view == canvasView ? canvasView : gridScroll;
+
+        if (gridView != view) {
+            gridView.setBoard(null);
+            gridView = view;
+        }
+        if (splitPane.getItems().get(0) != workspace) {
+            double divider = splitPane.getDividerPositions()[0];
+            splitPane.getItems().set(0, workspace);
+            splitPane.setDividerPositions(divider);
+        }
+        gridView.setBulbLit(isSimulationSuccess);
+        gridView.setBoard(board);
+    }
+
     private void resetLevel() {
         if (board != null) {
-            board.clearGrid();
+            stopPlayback();
             isSimulationSuccess = false;
-            updateGridDisplay();
+            gridView.setBulbLit(false);
+            // Presets (bulbs included) are placed again, so the CLEARED change redraws them
+            board.clearGrid();
+            history.record();
+            requestPreview();
             statusLabel.setText("Level Reset.");
             propertiesArea.setText("Board cleared.");
         }
@@ -166,10 +396,10 @@ public class CircuitGame extends Application {
     private void runCircuitSimulation() {
         if (board == null) return;
 
-        // Get valid path
-        java.util.List<Component> activePath = board.getValidPath();
+        // Get valid path (answered from the board's cache when this state was seen before)
+        Evaluation result = board.evaluate();
 
-        if (activePath == null) {
+        if (!result.isValid()) {
             statusLabel.setText("Simulation Failed: Open Circuit!");
             isSimulationSuccess = false;
             updateGridDisplay();
@@ -177,10 +407,11 @@ public class CircuitGame extends Application {
         }
 
         // Calculate R and C on found path
-        double totalResistance = board.calculateTotalResistance(activePath);
-        double totalCapacitance = board.calculateTotalCapacitance(activePath);
+        double totalResistance = result.getResistance();
+        double totalCapacitance = result.getCapacitance();
+        Netlist netlist = board.getNetlist();
 
-        double tau = totalResistance * totalCapacitance;
+        double tau = result.getTau();
         double duration = 5.0 * tau;
 
         // Report Results
@@ -198,8 +429,11 @@ public class CircuitGame extends Application {
             isSimulationSuccess = true;
             statusLabel.setText("Success! Circuit Valid.");
             
-            for(Component c : activePath){
-                if(c instanceof Bulb) ((Bulb)c).setLit(true);
+            for (int e = 0; e < netlist.getElementCount(); e++) {
+                if (netlist.getElementKind(e) != Netlist.BULB || !netlist.reachesSource(netlist.getElementNode(e))) continue;
+                int cell = netlist.getElementCell(e);
+                Component c = board.getComponent(cell / board.getCols(), cell % board.getCols());
+                if (c instanceof Bulb) ((Bulb) c).setLit(true);
             }
 
             updateGridDisplay();
@@ -219,6 +453,46 @@ public class CircuitGame extends Application {
         }
 
         propertiesArea.setText(sb.toString());
+        startPlayback(netlist, totalResistance, totalCapacitance);
+    }
+
+    private void startPlayback(Netlist netlist, double resistance, double capacitance) {
+        stopPlayback();
+        if (resistance <= 0 || capacitance <= 0) return;
+
+        double voltage = netlist.getSourceVoltage();
+        for (int e = 0; e < netlist.getElementCount(); e++) {
+            if (netlist.getElementKind(e) != Netlist.BULB || !netlist.reachesSource(netlist.getElementNode(e))) continue;
+            int cell = netlist.getElementCell(e);
+            bulbCells.add(new int[] {cell / board.getCols(), cell % board.getCols()});
+        }
+        playbackStatus = statusLabel.getText();
+        scheduler.start(netlist, voltage, resistance * capacitance);
+        playback.start();
+    }
+
+    private void stopPlayback() {
+        scheduler.stop();
+        if (playback != null) playback.stop();
+        lastFrameSequence = -1;
+        bulbCells.clear();
+    }
+
+    private void showFrame(SimulationFrame frame) {
+        if (frame == null || frame.getSequence() == lastFrameSequence) return;
+        lastFrameSequence = frame.getSequence();
+
+        statusLabel.setText(String.format("%s   t = %.2f s   I = %.4f A   Bulb %s (lit for %.3f s)",
+                playbackStatus, frame.getTime(), frame.getCurrent(), frame.isBulbLit() ? "ON" : "OFF",
+                frame.getBulbDuration()));
+
+        boolean lit = frame.isFinished() ? isSimulationSuccess : frame.isBulbLit();
+        gridView.setBulbLit(lit);
+        for (int[] cell : bulbCells) gridView.refreshAround(cell[0], cell[1]);
+
+        if (frame.isFinished()) {
+            playback.stop();
+        }
     }
 
     private Label createDraggableIcon(ComponentType type, Color color) {
@@ -275,228 +549,42 @@ public class CircuitGame extends Application {
     }
 
     private void updateGridDisplay() {
-        gridView.getChildren().clear();
-        if (board == null) return;
-
-        int rows = board.getRows();
-        int cols = board.getCols();
-
-        // Store cell references for the connection 
-        StackPane[][] cellNodes = new StackPane[rows][cols];
-
-        // Create cells and components in toolbox
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-
-                StackPane cell = new StackPane();
-                cell.setMinSize(60, 60);
-                cell.setPrefSize(60, 60);
-                cell.setMaxSize(60, 60);
-                
-                StackPane contentContainer = new StackPane();
-                
-                Rectangle bg = new Rectangle(60, 60);
-                bg.setStroke(Color.BLACK);
-                bg.setStrokeType(StrokeType.INSIDE);
-
-                Component comp = board.getComponent(r, c);
-
-                if (comp == null) {
-                    bg.setFill(Color.WHITE);
-                    contentContainer.getChildren().add(bg);
-                } else {
-                    if (comp instanceof Source) {
-                        bg.setFill(Color.RED);
-                    } else if (comp instanceof Destination) {
-                        bg.setFill(Color.BLUE);
-                    } else if (comp instanceof Resistor) {
-                        bg.setFill(Color.ORANGE);
-                    } else if (comp instanceof Bulb) {
-                        if (isSimulationSuccess) {
-                            bg.setFill(Color.YELLOW);
-                            bg.setEffect(new javafx.scene.effect.Glow(0.8));
-                        } else {
-                            bg.setFill(Color.DARKKHAKI);
-                            bg.setEffect(null);
-                        }
-                    } else if (comp instanceof Capacitor) {
-                        bg.setFill(Color.GREEN);
-                    } else if (comp instanceof Wire || comp instanceof CornerWire || comp instanceof TWire) {
-                        bg.setFill(Color.BLACK);
-                    } else if (comp instanceof Block) {
-                        bg.setFill(Color.DARKGRAY);
-                        bg.setStroke(Color.GRAY);
-                    }
-                    
-                    javafx.scene.Node directionNode = null;
-
-                    // Corner wire (L-shaped, no arrow)
-                    if (comp instanceof CornerWire) {
-                        Pane visualPane = new Pane();
-                        visualPane.setPrefSize(60, 60);
-
-                        javafx.scene.shape.Polyline path = new javafx.scene.shape.Polyline(
-                            30.0, 60.0,
-                            30.0, 30.0,
-                            60.0, 30.0
-                        );
-                        path.setStroke(Color.WHITE);
-                        path.setStrokeWidth(4);
-                        path.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-
-                        visualPane.getChildren().add(path);
-                        visualPane.setOpacity(0.9);
-                        directionNode = visualPane;
-                    } 
-                    // T-Wire (T-shaped, no arrow)
-                    else if (comp instanceof TWire) {
-                         Pane visualPane = new Pane();
-                         visualPane.setPrefSize(60, 60);
-
-                         javafx.scene.shape.Line horz = new javafx.scene.shape.Line(0, 30, 60, 30);
-                         horz.setStroke(Color.WHITE);
-                         horz.setStrokeWidth(4);
-                         horz.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-
-                         javafx.scene.shape.Line vert = new javafx.scene.shape.Line(30, 30, 30, 60);
-                         vert.setStroke(Color.WHITE);
-                         vert.setStrokeWidth(4);
-                         vert.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-
-                         visualPane.getChildren().addAll(horz, vert);
-                         visualPane.setOpacity(0.9);
-                         directionNode = visualPane;
-                    }
-                    // Straight Wire (Line, no arrow)
-                    else if (comp instanceof Wire || comp instanceof Resistor || comp instanceof Capacitor) {
-                        javafx.scene.shape.Line line = new javafx.scene.shape.Line(0, 30, 60, 30);
-                        line.setStroke(Color.WHITE);
-                        line.setStrokeWidth(4);
-                        line.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-                        line.setOpacity(0.9);
-                        directionNode = line;
-                    }
-                    // Source (Arrow for direction since this only has 1 output port)
-                    else if (comp instanceof Source) {
-                        javafx.scene.shape.Polygon arrow = new javafx.scene.shape.Polygon();
-                        arrow.getPoints().addAll(-10.0, -5.0, -10.0, 5.0, 10.0, 0.0);
-                        arrow.setFill(Color.WHITE);
-                        arrow.setOpacity(0.7);
-                        directionNode = arrow;
-                    }
-
-                    if (directionNode != null) {
-                        contentContainer.getChildren().addAll(bg, directionNode);
-                    } else {
-                        contentContainer.getChildren().add(bg);
-                    }
-
-                    // Rotation & Hover mouse for info
-                    contentContainer.setRotate(comp.getRotationDegree());
-
-                    String info = comp.getName(); 
-                    if (comp instanceof Resistor) {
-                        info += "\nResistance: " + ((Resistor)comp).getResistance() + " Ω";
-                    } else if (comp instanceof Capacitor) {
-                        info += "\nCapacitance: " + ((Capacitor)comp).getCapacitance() + " F";
-                    } else if (comp instanceof Bulb) {
-                        info += "\nState: " + (((Bulb)comp).isLit() ? "ON" : "OFF");
-                    } else if (comp instanceof Source) {
-                        info += "\nVoltage: " + ((Source)comp).getVoltage() + " V";
-                    }
-
-                    Tooltip tip = new Tooltip(info);
-                    tip.setStyle("-fx-font-size: 14px; -fx-background-color: #222; -fx-text-fill: white;");
-                    tip.setShowDelay(javafx.util.Duration.millis(50)); 
-                    Tooltip.install(cell, tip);
-                }
-
-                cell.getChildren().add(contentContainer);
-
-                // Handle events
-                final int finalR = r;
-                final int finalC = c;
-
-                // Drag
-                cell.setOnDragOver(event -> {
-                    if (event.getGestureSource() != cell && event.getDragboard().hasString()) {
-                        event.acceptTransferModes(TransferMode.COPY);
-                    }
-                    event.consume();
-                });
-
-                // Drop
-                cell.setOnDragDropped(event -> {
-                    Dragboard db = event.getDragboard();
-                    boolean success = false;
-                    if (db.hasString()) {
-                        String[] data = db.getString().split(":");
-                        String type = data[0];
-                        double val = (data.length > 1) ? Double.parseDouble(data[1]) : 0.0;
-                        handleDrop(finalR, finalC, type, val);
-                        success = true;
-                    }
-                    event.setDropCompleted(success);
-                    event.consume();
-                });
-
-                // Click (left for rotate, right for remove)
-                cell.setOnMouseClicked(event -> {
-                    if (event.getButton() == MouseButton.SECONDARY) {
-                        handleRemove(finalR, finalC);
-                    } 
-                    else if (event.getButton() == MouseButton.PRIMARY && comp != null) {
-                        if (comp.canRotate()) { 
-                            comp.rotate();
-                            updateGridDisplay();
-                        } else {
-                            // Shake effect for non-rotatable items (Blocks)
-                            statusLabel.setText("Cannot rotate this component!");
-                            TranslateTransition shake = new TranslateTransition(Duration.millis(50), cell);
-                            shake.setByX(5); 
-                            shake.setCycleCount(4); 
-                            shake.setAutoReverse(true); 
-                            shake.play();
-                        }
-                    }
-                });
-
-                cellNodes[r][c] = cell;
-                gridView.add(cell, c, r);
-            }
-        }
-
-        // Visualize connections
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                Component current = board.getComponent(r, c);
-                if (current == null) continue;
-
-                // Check right
-                if (c + 1 < cols) {
-                    Component right = board.getComponent(r, c + 1);
-                    if (ConnectionLogic.areConnected(current, right, 0, 1)) {
-                        GuiUtils.addConnectionMarker(cellNodes[r][c], 32, 0);
-                    }
-                }
+        long start = Metrics.REDRAW.start();
+        gridView.setBulbLit(isSimulationSuccess);
+        gridView.refreshAll();
+        Metrics.REDRAW.stop(start);
+    }
 
-                // Check bottom
-                if (r + 1 < rows) {
-                    Component bottom = board.getComponent(r + 1, c);
-                    if (ConnectionLogic.areConnected(current, bottom, 1, 0)) {
-                        GuiUtils.addConnectionMarker(cellNodes[r][c], 0, 32);
-                    }
-                }
-            }
+    private void rotateAt(int r, int c, javafx.scene.Node cell) {
+        if (board.rotateComponent(r, c)) {
+            history.record();
+            requestPreview();
+        } else {
+            // Shake effect for non-rotatable items (Blocks)
+            statusLabel.setText("Cannot rotate this component!");
+            TranslateTransition shake = new TranslateTransition(Duration.millis(50), cell);
+            shake.setByX(5); 
+            shake.setCycleCount(4); 
+            shake.setAutoReverse(true); 
+            shake.play();
         }
     }
     
     private void handleDrop(int r, int c, String dataString, double value) {
+        long start = Metrics.DROP.start();
+        try {
+            drop(r, c, dataString, value);
+        } finally {
+            Metrics.DROP.stop(start);
+        }
+    }
+
+    private void drop(int r, int c, String dataString, double value) {
         ComponentType type;
         try {
             type = ComponentType.valueOf(dataString);
         } catch (IllegalArgumentException e) {
-            System.out.println("Unknown component type: " + dataString);
+            if (LogSink.isEnabled()) LogSink.log("Unknown component type: " + dataString);
             return;
         }
 
@@ -529,8 +617,9 @@ public class CircuitGame extends Application {
                 return;
         }
         if (board.placeComponent(r, c, newComp)) {
+            history.record();
+            requestPreview();
             statusLabel.setText("Placed " + type.name());
-            updateGridDisplay();
         } else {
             statusLabel.setText("Cannot place here!");
         }
@@ -538,13 +627,122 @@ public class CircuitGame extends Application {
 
     private void handleRemove(int r, int c) {
         if (board.removeComponent(r, c)) {
+            history.record();
+            requestPreview();
             statusLabel.setText("Removed component.");
-            updateGridDisplay();
         } else {
             statusLabel.setText("Cannot remove! (Locked)");
         }
     }
 
+    // Redraws what an edit touched; big batches (reset, undo of many edits) redraw everything
+    private void onBoardChanged(BoardChange change) {
+        if (change.getBoard() != board) return;
+        long start = Metrics.REDRAW.start();
+        if (change.size() > REDRAW_ALL_THRESHOLD) {
+            gridView.refreshAll();
+        } else {
+            for (int cell : change.getCells()) gridView.refreshAround(cell / board.getCols(), cell % board.getCols());
+        }
+        Metrics.REDRAW.stop(start);
+    }
+
+    private void requestPreview() {
+        preview.submit(board.getPublished());
+    }
+
+    // Streams the newest preview into the result pane; results of superseded edits are dropped
+    private void showPreview(Preview result) {
+        if (!preview.isCurrent(result)) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Live Preview ---\n");
+        if (result.isOpen()) {
+            sb.append("Open circuit: the Source does not reach Ground.");
+        } else if (!result.isComplete()) {
+            sb.append("Circuit closed, working out R and C...");
+        } else if (result.isShorted()) {
+            sb.append("Short circuit: no resistance between Source and Ground.");
+        } else {
+            sb.append(String.format("Resistance: %.2f Ω\n", result.getResistance()));
+            sb.append(String.format("Capacitance: %.3f F\n", result.getCapacitance()));
+            sb.append(String.format("Time Constant (τ): %.3f s\n", result.getTau()));
+            sb.append(String.format("Bulb Duration: %.2f s", result.getDuration()));
+            if (Math.abs(result.getDuration() - 5.0) < 0.1) sb.append("\n\nOn target: press Run.");
+        }
+        propertiesArea.setText(sb.toString());
+    }
+
+    private void undo() {
+        if (history == null) return;
+        if (!history.canUndo()) {
+            statusLabel.setText("Nothing to undo.");
+            return;
+        }
+        beforeHistoryMove();
+        history.undo();
+        afterHistoryMove("Undone.");
+    }
+
+    private void redo() {
+        if (history == null) return;
+        if (!history.canRedo()) {
+            statusLabel.setText("Nothing to redo.");
+            return;
+        }
+        beforeHistoryMove();
+        history.redo();
+        afterHistoryMove("Redone.");
+    }
+
+    // Unlights the bulb before the board changes; the change event then repaints what moved
+    private void beforeHistoryMove() {
+        java.util.List<int[]> lit = new java.util.ArrayList<>(bulbCells);
+        stopPlayback();
+        isSimulationSuccess = false;
+        gridView.setBulbLit(false);
+        for (int[] cell : lit) gridView.refreshAround(cell[0], cell[1]);
+    }
+
+    private void afterHistoryMove(String status) {
+        requestPreview();
+        statusLabel.setText(status);
+    }
+
+    private void showFrameTimes(boolean show) {
+        frameLabel.setVisible(show);
+        if (show) {
+            updateFrameTimes();
+            frameRefresh.play();
+        } else {
+            frameRefresh.stop();
+        }
+    }
+
+    // p50/p99 over the most recent pulses and handlers; red once the p99 is over the budget
+    private void updateFrameTimes() {
+        TimerStats pulses = watchdog.getPulseSummary();
+        TimerStats handlers = watchdog.getHandlerSummary();
+        frameLabel.setText(String.format("pulse p50 %.1f / p99 %.1f ms   handlers p50 %.1f / p99 %.1f ms   stalls %d",
+                pulses.getP50Nanos() / 1e6, pulses.getP99Nanos() / 1e6,
+                handlers.getP50Nanos() / 1e6, handlers.getP99Nanos() / 1e6,
+                watchdog.getStallCount()));
+        boolean slow = Math.max(pulses.getP99Nanos(), handlers.getP99Nanos()) > watchdog.getBudgetNanos();
+        frameLabel.setTextFill(slow ? Color.RED : Color.BLACK);
+    }
+
+    // Called on the FX thread right after the slow section; the tooltip keeps the latest sample
+    private void onStall(FxWatchdog.Stall stall) {
+        frameLabel.getTooltip().setText(stall.toString());
+        if (frameLabel.isVisible()) updateFrameTimes();
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdown();
+        preview.shutdown();
+        watchdog.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,5 +1,7 @@
 package src.Component;
 
+import src.Metrics.LogSink;
+
 public class Bulb extends Component {
     private boolean isLit;
 
@@ -21,10 +23,10 @@ public class Bulb extends Component {
 
         if (Math.abs(getCurrent()) > threshold) {
             this.isLit = true;
-            System.out.println(getName() + " is ON (Current: " + getCurrent() + ")");
+            if (LogSink.isEnabled()) LogSink.log(getName() + " is ON (Current: " + getCurrent() + ")");
         } else {
             this.isLit = false;
-            System.out.println(getName() + " is OFF");
+            if (LogSink.isEnabled()) LogSink.log(getName() + " is OFF");
         }
     }
 }
\ No newline at end of file
@@ -7,9 +7,14 @@ public abstract class Component {
     private boolean isLocked = false;
     private boolean canRotate = true;
     private int rotationDegree = 0;
+    private final ComponentType type;
+    private int portMask;
+    private boolean readOnly = false;
 
     public int rotate(){
+        checkWritable();
         this.rotationDegree = (rotationDegree + 90) % 360;
+        this.portMask = type == null ? 0 : type.portMask(rotationDegree);
         return this.rotationDegree;
     }
 
@@ -17,12 +22,15 @@ public abstract class Component {
         return isLocked;
     }
     public void setLocked(boolean locked){
+        checkWritable();
         this.isLocked = locked;
     }
     public Component(String name) {
         this.name = name;
         this.voltage = 0.0;
         this.current = 0.0;
+        this.type = ComponentType.of(this);
+        this.portMask = type == null ? 0 : type.portMask(0);
     }
     public String getName() {
         return name;
@@ -34,18 +42,32 @@ public abstract class Component {
         return current;
     }
     public void setVoltage(double voltage) {
+        checkWritable();
         this.voltage = voltage;
     }
     public void setCurrent(double current) {
+        checkWritable();
         this.current = current;
     }
     public boolean canRotate() {
         return canRotate;
     }
     public void setCanRotate(boolean canRotate) {
+        checkWritable();
         this.canRotate = canRotate;
     }
     public int getRotationDegree() {return rotationDegree;}
+    public ComponentType getType() {return type;}
+    public int getPortMask() {return portMask;}
+
+    // Views of packed board cells are read-only: a change to one would not reach the board,
+    // or would reach every cell sharing it
+    public boolean isReadOnly() {return readOnly;}
+    public void setReadOnly() {readOnly = true;}
+
+    private void checkWritable() {
+        if (readOnly) throw new UnsupportedOperationException("Read-only view of a board cell, change it through the board: " + name);
+    }
     
     public String toString() {
         return "Name: " + name;
@@ -1,22 +1,67 @@
 package src.Component;
 
 public enum ComponentType{
-    WIRE(Wire.class),
-    CORNER_WIRE(CornerWire.class),
-    T_WIRE(TWire.class),
-    RESISTOR(Resistor.class),
-    CAPACITOR(Capacitor.class),
+    // Port masks at 0 degrees: Top = 1, Right = 2, Bottom = 4, Left = 8
+    WIRE(Wire.class, 0b1010),
+    CORNER_WIRE(CornerWire.class, 0b0110),
+    T_WIRE(TWire.class, 0b1110),
+    RESISTOR(Resistor.class, 0b1010),
+    CAPACITOR(Capacitor.class, 0b1010),
 
-    SOURCE(Source.class),
-    DESTINATION(Destination.class),
-    BULB(Bulb.class),
-    BLOCK(Block.class);
+    SOURCE(Source.class, 0b0010),
+    DESTINATION(Destination.class, 0b1111),
+    BULB(Bulb.class, 0b1111),
+    BLOCK(Block.class, 0b0000);
+
+    private static final ComponentType[] TYPES = values();
 
     private Class<?>  clazz;
-    ComponentType(Class<?> clazz) {
+    private final int[] portMasks = new int[4]; // indexed by rotation / 90
+
+    ComponentType(Class<?> clazz, int basePorts) {
         this.clazz = clazz;
+        int mask = basePorts;
+        for (int i = 0; i < 4; i++) {
+            portMasks[i] = mask;
+            mask = ((mask << 1) | (mask >>> 3)) & 0xF; // rotating 90 degrees clockwise shifts every port one side on
+        }
     }
     public boolean isInstance(Component component) {
         return clazz.isInstance(component);
     }
+    public int portMask(int rotationDegree) {
+        return portMasks[(rotationDegree % 360) / 90];
+    }
+    // Rotation (0, 90, 180 or 270) at which this type has exactly the given ports, or -1
+    public int rotationFor(int ports) {
+        for (int i = 0; i < 4; i++) {
+            if (portMasks[i] == ports) return i * 90;
+        }
+        return -1;
+    }
+
+    // New component of this type with the default names used by the game
+    public Component create(double value) {
+        Component component;
+        switch (this) {
+            case WIRE: component = new Wire("Wire"); break;
+            case CORNER_WIRE: component = new CornerWire("Corner"); break;
+            case T_WIRE: component = new TWire("Junction"); break;
+            case RESISTOR: component = new Resistor("Resistor", value); break;
+            case CAPACITOR: component = new Capacitor("Capacitor", value); break;
+            case SOURCE: component = new Source("Source", value); break;
+            case DESTINATION: component = new Destination("Ground"); break;
+            case BULB: component = new Bulb("Bulb"); break;
+            default: component = new Block("Block"); break;
+        }
+        return component;
+    }
+
+    public static ComponentType of(Component component) {
+        if (component == null) return null;
+        for (ComponentType type : TYPES) {
+            if (type.isInstance(component)) return type;
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package src.Component;
 
+import src.Metrics.LogSink;
+
 public class Destination extends Component {
 
     public Destination(String name) {
@@ -9,6 +11,6 @@ public class Destination extends Component {
 
     public void calculateAttributes() {
         setVoltage(0.0);
-        System.out.println("Destination " + getName() + " grounded at 0V");
+        if (LogSink.isEnabled()) LogSink.log("Destination " + getName() + " grounded at 0V");
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package src.Component;
 
+import src.Metrics.LogSink;
+
 public class Source extends Component {
 
     public Source(String name, double supplyVoltage) {
@@ -8,6 +10,6 @@ public class Source extends Component {
     }
 
     public void calculateAttributes() {
-        System.out.println("Source " + getName() + " providing " + getVoltage() + "V");
+        if (LogSink.isEnabled()) LogSink.log("Source " + getName() + " providing " + getVoltage() + "V");
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package src.Level;
+
+import src.Board.CircuitBoard;
+import src.Component.*;
+
+// A puzzle as plain data: size, resistor and capacitor limits and the starting pieces. Decoded
+// from a LevelPack on demand; CustomBoard(Level) turns it into a playable board.
+public class Level {
+    private final String name;
+    private final int rows;
+    private final int cols;
+    private final int maxResistors;
+    private final int maxCapacitors;
+
+    // Per cell, packed as row * cols + col
+    private final ComponentType[] types; // null when empty
+    private final byte[] rotations;      // rotation / 90
+    private final double[] values;       // resistance, capacitance or source voltage
+    private final boolean[] locked;
+
+    Level(String name, int rows, int cols, int maxResistors, int maxCapacitors,
+          ComponentType[] types, byte[] rotations, double[] values, boolean[] locked) {
+        this.name = name;
+        this.rows = rows;
+        this.cols = cols;
+        this.maxResistors = maxResistors;
+        this.maxCapacitors = maxCapacitors;
+        this.types = types;
+        this.rotations = rotations;
+        this.values = values;
+        this.locked = locked;
+    }
+
+    // Snapshot of the board as it stands, limits included
+    public static Level of(String name, CircuitBoard board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        ComponentType[] types = new ComponentType[rows * cols];
+        byte[] rotations = new byte[rows * cols];
+        double[] values = new double[rows * cols];
+        boolean[] locked = new boolean[rows * cols];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Component component = board.getComponent(r, c);
+                if (component == null) continue;
+                int cell = r * cols + c;
+                types[cell] = component.getType();
+                if (types[cell] == null) throw new IllegalArgumentException("Unknown component: " + component);
+                rotations[cell] = (byte) (component.getRotationDegree() / 90);
+                locked[cell] = component.isLocked();
+                if (component instanceof Resistor) values[cell] = ((Resistor) component).getResistance();
+                else if (component instanceof Capacitor) values[cell] = ((Capacitor) component).getCapacitance();
+                else if (component instanceof Source) values[cell] = component.getVoltage();
+            }
+        }
+        return new Level(name, rows, cols, board.getMaxResistors(), board.getMaxCapacitors(), types, rotations, values, locked);
+    }
+
+    // New component for the cell, or null when it is empty
+    public Component createComponent(int row, int col) {
+        int cell = row * cols + col;
+        ComponentType type = types[cell];
+        if (type == null) return null;
+        Component component = type.create(values[cell]);
+        if (component.canRotate()) {
+            for (int i = 0; i < rotations[cell]; i++) component.rotate();
+        }
+        if (locked[cell]) component.setLocked(true);
+        return component;
+    }
+
+    public String getName() { return name; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getMaxResistors() { return maxResistors; }
+    public int getMaxCapacitors() { return maxCapacitors; }
+
+    public ComponentType getType(int row, int col) { return types[row * cols + col]; }
+    public int getRotationDegree(int row, int col) { return rotations[row * cols + col] * 90; }
+    public double getValue(int row, int col) { return values[row * cols + col]; }
+    public boolean isLocked(int row, int col) { return locked[row * cols + col]; }
+
+    public String toString() {
+        return name + " (" + rows + "x" + cols + ")";
+    }
+}
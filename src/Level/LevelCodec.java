@@ -0,0 +1,169 @@
+package src.Level;
+
+import src.Component.ComponentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary form of one Level:
+//   u16 name length, UTF-8 name
+//   varint rows, varint cols, zigzag varint maxResistors, zigzag varint maxCapacitors
+//   cells in row-major order, one tag byte each:
+//     bits 0-3  piece code (0 empty, see CODES)
+//     empty and block: a varint run length follows, covering that many cells
+//     other pieces: bits 4-5 rotation / 90, bit 6 locked, bit 7 a big-endian double value follows
+// Levels are mostly empty and blocked cells, so the runs keep a typical level to a few dozen bytes.
+public class LevelCodec {
+    // Codes are part of the file format: only ever append
+    private static final ComponentType[] CODES = {
+            null,
+            ComponentType.WIRE,
+            ComponentType.CORNER_WIRE,
+            ComponentType.T_WIRE,
+            ComponentType.RESISTOR,
+            ComponentType.CAPACITOR,
+            ComponentType.SOURCE,
+            ComponentType.DESTINATION,
+            ComponentType.BULB,
+            ComponentType.BLOCK
+    };
+    private static final int EMPTY = 0;
+    private static final int BLOCK = 9;
+    private static final int LOCKED = 0x40;
+    private static final int HAS_VALUE = 0x80;
+
+    public static byte[] encode(Level level) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            byte[] name = level.getName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IllegalArgumentException("Level name too long");
+            out.writeShort(name.length);
+            out.write(name);
+            writeVarint(out, level.getRows());
+            writeVarint(out, level.getCols());
+            writeVarint(out, zigzag(level.getMaxResistors()));
+            writeVarint(out, zigzag(level.getMaxCapacitors()));
+
+            int rows = level.getRows();
+            int cols = level.getCols();
+            int cells = rows * cols;
+            int cell = 0;
+            while (cell < cells) {
+                int code = codeOf(level.getType(cell / cols, cell % cols));
+                if (code == EMPTY || code == BLOCK) {
+                    int run = 1;
+                    while (cell + run < cells && codeOf(level.getType((cell + run) / cols, (cell + run) % cols)) == code) run++;
+                    out.writeByte(code);
+                    writeVarint(out, run);
+                    cell += run;
+                    continue;
+                }
+
+                int row = cell / cols;
+                int col = cell % cols;
+                double value = level.getValue(row, col);
+                int tag = code | (level.getRotationDegree(row, col) / 90) << 4;
+                if (level.isLocked(row, col)) tag |= LOCKED;
+                if (value != 0.0) tag |= HAS_VALUE;
+                out.writeByte(tag);
+                if (value != 0.0) out.writeDouble(value);
+                cell++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    // Decodes the level starting at the buffer's position, leaving the position after it
+    public static Level decode(ByteBuffer in) {
+        try {
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            int rows = readVarint(in);
+            int cols = readVarint(in);
+            int maxResistors = unzigzag(readVarint(in));
+            int maxCapacitors = unzigzag(readVarint(in));
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corrupt level: size " + rows + "x" + cols);
+            }
+
+            int cells = rows * cols;
+            ComponentType[] types = new ComponentType[cells];
+            byte[] rotations = new byte[cells];
+            double[] values = new double[cells];
+            boolean[] locked = new boolean[cells];
+
+            int cell = 0;
+            while (cell < cells) {
+                int tag = in.get() & 0xFF;
+                int code = tag & 0x0F;
+                if (code >= CODES.length) throw new IllegalArgumentException("Corrupt level: piece code " + code);
+                if (code == EMPTY || code == BLOCK) {
+                    int run = readVarint(in);
+                    if (run <= 0 || run > cells - cell) throw new IllegalArgumentException("Corrupt level: run of " + run);
+                    if (code == BLOCK) {
+                        java.util.Arrays.fill(types, cell, cell + run, ComponentType.BLOCK);
+                        java.util.Arrays.fill(locked, cell, cell + run, true);
+                    }
+                    cell += run;
+                    continue;
+                }
+                types[cell] = CODES[code];
+                rotations[cell] = (byte) ((tag >>> 4) & 3);
+                locked[cell] = (tag & LOCKED) != 0;
+                if ((tag & HAS_VALUE) != 0) values[cell] = in.getDouble();
+                cell++;
+            }
+            return new Level(new String(name, StandardCharsets.UTF_8), rows, cols, maxResistors, maxCapacitors,
+                    types, rotations, values, locked);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Corrupt level: truncated");
+        }
+    }
+
+    // Name only, without decoding the cells
+    public static String decodeName(ByteBuffer in) {
+        byte[] name = new byte[in.getShort() & 0xFFFF];
+        in.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static int codeOf(ComponentType type) {
+        for (int code = 1; code < CODES.length; code++) {
+            if (CODES[code] == type) return code;
+        }
+        return EMPTY;
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Corrupt level: varint too long");
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
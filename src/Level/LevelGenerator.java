@@ -0,0 +1,269 @@
+package src.Level;
+
+import src.Board.CustomBoard;
+import src.Board.Evaluation;
+import src.Board.Netlist;
+import src.Component.ComponentType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Builds new levels of a given size from a seed; the same size and seed always give the same
+// level. The Source sits on the left edge facing right, the Ground on the right edge and the
+// Bulb in between. A route is carved from Source through Bulb to Ground, moving one column to
+// the right at a time with random vertical jogs, so it can never cross itself. Its first
+// straight cells carry the resistors and capacitors of a known solution; the rest of the board
+// is sprinkled with Blocks. Every level is checked by evaluating its solution on a real board.
+// Batches are generated on a fork-join pool, one seed per level.
+public class LevelGenerator {
+    public static final double TARGET_DURATION = 5.0;
+    public static final double TOLERANCE = 0.1;
+    public static final double SOURCE_VOLTAGE = 10.0;
+    // Largest side accepted; keeps rows * cols and the verification board within reach
+    public static final int MAX_SIDE = 2000;
+
+    // Resistances tried for the solution; the capacitance is derived from the target
+    private static final double[] RESISTANCES = {1, 2, 5, 10, 20, 50, 100};
+    private static final int MAX_LIMIT = 3;
+    private static final double JOG = 0.35;
+    private static final double MIN_BLOCKS = 0.15;
+    private static final double MAX_BLOCKS = 0.45;
+    private static final int ATTEMPTS = 8;
+    private static final int SEEDS_PER_TASK = 16;
+    private static final int PACKED_CELLS = 4096;
+
+    private static final int TOP = 1, RIGHT = 2, BOTTOM = 4, LEFT = 8;
+
+    private final int rows;
+    private final int cols;
+    private final ForkJoinPool pool;
+
+    // A level and the same level with one solution filled in
+    public static class Generated {
+        private final long seed;
+        private final Level level;
+        private final Level solved;
+
+        Generated(long seed, Level level, Level solved) {
+            this.seed = seed;
+            this.level = level;
+            this.solved = solved;
+        }
+
+        public long getSeed() { return seed; }
+        public Level getLevel() { return level; }
+        public Level getSolved() { return solved; }
+    }
+
+    public LevelGenerator(int rows, int cols) {
+        this(rows, cols, ForkJoinPool.commonPool());
+    }
+
+    // Needs room for the Source, two straight cells, the Bulb and the Ground in one row
+    public LevelGenerator(int rows, int cols, ForkJoinPool pool) {
+        if (rows < 1 || cols < 5) throw new IllegalArgumentException("Levels need at least 1 row and 5 columns: " + rows + "x" + cols);
+        if (rows > MAX_SIDE || cols > MAX_SIDE) {
+            throw new IllegalArgumentException("Levels are at most " + MAX_SIDE + "x" + MAX_SIDE + ": " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.pool = pool;
+    }
+
+    public Level generate(long seed) {
+        return generateSolved(seed).getLevel();
+    }
+
+    public Generated generateSolved(long seed) {
+        Random random = new Random(seed);
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            Generated generated = attempt(seed, random);
+            if (generated != null) return generated;
+        }
+        throw new IllegalStateException("No verified level for seed " + seed + " at " + rows + "x" + cols);
+    }
+
+    // Levels for seeds firstSeed, firstSeed + 1, ... in that order, generated in parallel
+    public List<Generated> generateAll(long firstSeed, int count) {
+        if (count < 0) throw new IllegalArgumentException("Negative count: " + count);
+        Generated[] levels = new Generated[count];
+        pool.invoke(new Batch(firstSeed, levels, 0, count));
+        List<Generated> result = new ArrayList<>(count);
+        for (Generated level : levels) result.add(level);
+        return result;
+    }
+
+    private class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long firstSeed;
+        private final Generated[] levels;
+        private final int from;
+        private final int to;
+
+        Batch(long firstSeed, Generated[] levels, int from, int to) {
+            this.firstSeed = firstSeed;
+            this.levels = levels;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEEDS_PER_TASK) {
+                for (int i = from; i < to; i++) levels[i] = generateSolved(firstSeed + i);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Batch(firstSeed, levels, from, middle), new Batch(firstSeed, levels, middle, to));
+        }
+    }
+
+    // One try from the seed's random stream; null when its solution does not check out
+    private Generated attempt(long seed, Random random) {
+        int cells = rows * cols;
+        ComponentType[] types = new ComponentType[cells];
+        byte[] rotations = new byte[cells];
+        double[] values = new double[cells];
+        boolean[] locked = new boolean[cells];
+        int[] ports = new int[cells];
+        List<Integer> route = new ArrayList<>();
+
+        // The solution's pieces go on the first straight cells after the Source
+        int maxResistors = 1 + random.nextInt(MAX_LIMIT);
+        int maxCapacitors = 1 + random.nextInt(MAX_LIMIT);
+        int resistors = 1 + random.nextInt(maxResistors);
+        int capacitors = 1 + random.nextInt(maxCapacitors);
+        while (resistors + capacitors > cols - 3) {
+            if (resistors >= capacitors) resistors--;
+            else capacitors--;
+        }
+        int straight = resistors + capacitors;
+
+        int sourceRow = random.nextInt(rows);
+        int bulbCol = straight + 1 + random.nextInt(cols - 2 - straight);
+        // With no free column before or after the Bulb the route cannot change rows there
+        int bulbRow = bulbCol == straight + 1 ? sourceRow : random.nextInt(rows);
+        int groundRow = bulbCol == cols - 2 ? bulbRow : random.nextInt(rows);
+
+        carve(sourceRow, 0, bulbRow, bulbCol, straight, random, ports, route);
+        carve(bulbRow, bulbCol, groundRow, cols - 1, 0, random, ports, route);
+
+        fix(types, locked, sourceRow * cols, ComponentType.SOURCE);
+        values[sourceRow * cols] = SOURCE_VOLTAGE;
+        fix(types, locked, bulbRow * cols + bulbCol, ComponentType.BULB);
+        fix(types, locked, groundRow * cols + cols - 1, ComponentType.DESTINATION);
+
+        double blocks = MIN_BLOCKS + random.nextDouble() * (MAX_BLOCKS - MIN_BLOCKS);
+        for (int cell = 0; cell < cells; cell++) {
+            if (types[cell] == null && ports[cell] == 0 && random.nextDouble() < blocks) {
+                fix(types, locked, cell, ComponentType.BLOCK);
+            }
+        }
+
+        String name = "Generated " + rows + "x" + cols + " #" + seed;
+        Level level = new Level(name, rows, cols, maxResistors, maxCapacitors, types, rotations, values, locked);
+
+        // Solution: resistors then capacitors on the straight run, wires everywhere else
+        for (double resistance : shuffled(random)) {
+            double capacitance = Math.round(TARGET_DURATION * capacitors / (5.0 * resistors * resistance) * 1000) / 1000.0;
+            if (capacitance <= 0) continue;
+            ComponentType[] solvedTypes = types.clone();
+            byte[] solvedRotations = rotations.clone();
+            double[] solvedValues = values.clone();
+            for (int i = 0; i < route.size(); i++) {
+                int cell = route.get(i);
+                ComponentType type;
+                if (i < resistors) {
+                    type = ComponentType.RESISTOR;
+                    solvedValues[cell] = resistance;
+                } else if (i < straight) {
+                    type = ComponentType.CAPACITOR;
+                    solvedValues[cell] = capacitance;
+                } else {
+                    boolean through = ports[cell] == (LEFT | RIGHT) || ports[cell] == (TOP | BOTTOM);
+                    type = through ? ComponentType.WIRE : ComponentType.CORNER_WIRE;
+                }
+                solvedTypes[cell] = type;
+                solvedRotations[cell] = (byte) (type.rotationFor(ports[cell]) / 90);
+            }
+            Level solved = new Level(name, rows, cols, maxResistors, maxCapacitors,
+                    solvedTypes, solvedRotations, solvedValues, locked.clone());
+            if (verify(solved)) return new Generated(seed, level, solved);
+        }
+        return null;
+    }
+
+    // Route through the columns strictly between two waypoints, entering the first from the left
+    // of `fromCol + 1` and leaving the last to the right into the target. The first `straight`
+    // columns keep their row so they hold straight pieces. Cells are appended in route order.
+    private void carve(int fromRow, int fromCol, int toRow, int toCol, int straight, Random random,
+                       int[] ports, List<Integer> route) {
+        int row = fromRow;
+        int span = Math.max(1, rows / 4);
+        for (int col = fromCol + 1; col < toCol; col++) {
+            int out;
+            if (col == toCol - 1) out = toRow;
+            else if (col - fromCol <= straight || random.nextDouble() >= JOG) out = row;
+            else out = Math.max(0, Math.min(rows - 1, row + random.nextInt(2 * span + 1) - span));
+
+            if (out == row) {
+                add(row, col, LEFT | RIGHT, ports, route);
+            } else {
+                int step = out > row ? 1 : -1;
+                add(row, col, LEFT | (step > 0 ? BOTTOM : TOP), ports, route);
+                for (int r = row + step; r != out; r += step) add(r, col, TOP | BOTTOM, ports, route);
+                add(out, col, (step > 0 ? TOP : BOTTOM) | RIGHT, ports, route);
+            }
+            row = out;
+        }
+    }
+
+    private void add(int row, int col, int sides, int[] ports, List<Integer> route) {
+        int cell = row * cols + col;
+        ports[cell] = sides;
+        route.add(cell);
+    }
+
+    private static void fix(ComponentType[] types, boolean[] locked, int cell, ComponentType type) {
+        types[cell] = type;
+        locked[cell] = true;
+    }
+
+    private static double[] shuffled(Random random) {
+        double[] order = RESISTANCES.clone();
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    // The win rule of the game: closed through the Bulb, not shorted, 5·R·C on target
+    private static boolean verify(Level solved) {
+        // Nothing gets cleared, so plain placements do; large boards use the packed storage
+        int rows = solved.getRows();
+        int cols = solved.getCols();
+        CustomBoard board = new CustomBoard(rows, cols, solved.getMaxResistors(), solved.getMaxCapacitors(),
+                rows * cols > PACKED_CELLS);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (solved.getType(r, c) != null) board.placeComponent(r, c, solved.createComponent(r, c));
+            }
+        }
+        Evaluation evaluation = board.evaluate();
+        if (!evaluation.isValid() || evaluation.getResistance() <= 0) return false;
+        if (Math.abs(5.0 * evaluation.getTau() - TARGET_DURATION) >= TOLERANCE) return false;
+
+        Netlist netlist = board.getNetlist();
+        for (int e = 0; e < netlist.getElementCount(); e++) {
+            if (netlist.getElementKind(e) == Netlist.BULB && netlist.reachesSource(netlist.getElementNode(e))) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package src.Level;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// A file of many levels, memory-mapped and decoded one level at a time:
+//   int magic, int count, long[count + 1] offsets of each record and of the end of the last one,
+//   then the LevelCodec records back to back.
+// Opening only checks the header, so a pack of 100k levels opens in constant time and only the
+// pages of the levels actually selected are read. Safe to read from several threads.
+public class LevelPack {
+    private static final int MAGIC = 0x43504B31; // "CPK1"
+    private static final int HEADER = 8;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    private LevelPack(MappedByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    public static LevelPack open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Level pack too large to map: " + path);
+            if (size < HEADER) throw new IOException("Not a level pack: " + path);
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) throw new IOException("Not a level pack: " + path);
+            int count = buffer.getInt(4);
+            if (count < 0 || HEADER + 8L * (count + 1) > size) throw new IOException("Corrupt level pack index: " + path);
+            long end = buffer.getLong(HEADER + 8 * count);
+            if (end > size) throw new IOException("Truncated level pack: " + path);
+            return new LevelPack(buffer, count);
+        }
+    }
+
+    public static void write(Path path, List<Level> levels) throws IOException {
+        int count = levels.size();
+        long position = HEADER + 8L * (count + 1);
+        ByteBuffer header = ByteBuffer.allocate((int) position);
+        header.putInt(MAGIC).putInt(count);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel.position(position)), 1 << 16);
+            for (Level level : levels) {
+                byte[] record = LevelCodec.encode(level);
+                header.putLong(position);
+                out.write(record);
+                position += record.length;
+            }
+            header.putLong(position);
+            out.flush();
+
+            header.flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+        }
+    }
+
+    public int size() { return count; }
+
+    // Decodes level `index` (0-based) from the mapping
+    public Level get(int index) {
+        return LevelCodec.decode(record(index));
+    }
+
+    // Name of level `index`, for listings, without decoding its cells
+    public String getName(int index) {
+        return LevelCodec.decodeName(record(index));
+    }
+
+    private ByteBuffer record(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Level " + index + " of " + count);
+        long start = buffer.getLong(HEADER + 8 * index);
+        long end = buffer.getLong(HEADER + 8 * (index + 1));
+        if (start < HEADER || end < start || end > buffer.capacity()) {
+            throw new IllegalArgumentException("Corrupt level pack index at level " + index);
+        }
+        // Own position and limit per call, so readers do not interfere
+        ByteBuffer record = buffer.duplicate();
+        record.limit((int) end).position((int) start);
+        return record;
+    }
+}
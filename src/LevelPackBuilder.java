@@ -0,0 +1,50 @@
+package src;
+
+import src.Level.Level;
+import src.Level.LevelGenerator;
+import src.Level.LevelPack;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Headless level pack generation: `count` verified levels of one size for the seeds
+// firstSeed .. firstSeed + count - 1, written as a LevelPack the game can open. A level can be
+// rebuilt later from its size and seed (both are in its name).
+// Usage: LevelPackBuilder [-j threads] [-s first seed] rows cols count pack-file
+public class LevelPackBuilder {
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long firstSeed = 1;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-j") && i + 1 < args.length) threads = Math.max(1, Integer.parseInt(args[++i]));
+            else if (args[i].equals("-s") && i + 1 < args.length) firstSeed = Long.parseLong(args[++i]);
+            else positional.add(args[i]);
+        }
+        if (positional.size() != 4) {
+            System.err.println("Usage: LevelPackBuilder [-j threads] [-s first seed] rows cols count pack-file");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(positional.get(0));
+        int cols = Integer.parseInt(positional.get(1));
+        int count = Integer.parseInt(positional.get(2));
+        Path file = Paths.get(positional.get(3));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<Level> levels = new ArrayList<>(count);
+        for (LevelGenerator.Generated generated : new LevelGenerator(rows, cols, pool).generateAll(firstSeed, count)) {
+            levels.add(generated.getLevel());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        LevelPack.write(file, levels);
+        System.err.printf("%d levels of %dx%d in %.2f s (%.0f per minute) on %d threads -> %s%n",
+                count, rows, cols, seconds, count / seconds * 60, threads, file);
+    }
+}
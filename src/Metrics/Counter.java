@@ -0,0 +1,27 @@
+package src.Metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Event count; cheap under contention because every thread adds to its own cell
+public class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    public void increment() {
+        if (Metrics.isEnabled()) value.increment();
+    }
+
+    public void add(long amount) {
+        if (Metrics.isEnabled()) value.add(amount);
+    }
+
+    public long get() { return value.sum(); }
+
+    public void reset() { value.reset(); }
+}
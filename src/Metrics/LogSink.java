@@ -0,0 +1,83 @@
+package src.Metrics;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Console logging that keeps printing off the calling thread. Lines are queued and written by a
+// daemon thread; when the queue is full they are dropped and counted, never waited for.
+// Off unless started with -Dcircuit.log=true or switched on over JMX; callers check isEnabled()
+// first so a disabled sink does not even build the message.
+public final class LogSink {
+    private static final int CAPACITY = 4096;
+
+    private static final BlockingQueue<String> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private static final LongAdder dropped = new LongAdder();
+    // Queued or being written
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static volatile boolean enabled = Boolean.getBoolean("circuit.log");
+    private static volatile PrintStream out = System.out;
+    private static Thread writer;
+
+    private LogSink() { }
+
+    public static boolean isEnabled() { return enabled; }
+
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    // Where lines go; System.out unless redirected
+    public static void setOutput(PrintStream stream) { out = stream; }
+
+    public static long getDropped() { return dropped.sum(); }
+
+    public static void log(String line) {
+        if (!enabled) return;
+        if (writer == null) startWriter();
+        pending.incrementAndGet();
+        if (!queue.offer(line)) {
+            pending.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    // Waits (at most a second) until everything logged so far is written, e.g. before exiting
+    public static void flush() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (pending.get() > 0 && System.nanoTime() < deadline) Thread.sleep(1);
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        writer = new Thread(LogSink::drain, "circuit-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static void drain() {
+        List<String> lines = new ArrayList<>();
+        try {
+            while (true) {
+                lines.add(queue.take());
+                queue.drainTo(lines, CAPACITY);
+                write(lines);
+                pending.addAndGet(-lines.size());
+                lines.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(List<String> lines) {
+        PrintStream stream = out;
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) text.append(line).append(System.lineSeparator());
+        stream.print(text);
+        stream.flush();
+    }
+}
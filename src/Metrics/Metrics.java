@@ -0,0 +1,83 @@
+package src.Metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Process-wide registry of timers and counters for the hot paths. Instruments are created once
+// and kept in constants so call sites pay no lookup. Switched off with -Dcircuit.metrics=false
+// or over JMX; a switched-off timer costs one volatile read.
+public final class Metrics {
+    public static final String OBJECT_NAME = "src.Metrics:type=Metrics";
+
+    private static final Map<String, Timer> timers = new LinkedHashMap<>();
+    private static final Map<String, Counter> counters = new LinkedHashMap<>();
+    private static volatile boolean enabled = !"false".equals(System.getProperty("circuit.metrics"));
+
+    // Source-to-Ground search (hasValidPath, getValidPath)
+    public static final Timer PATH = timer("path");
+    public static final Timer RESISTANCE = timer("resistance");
+    public static final Timer CAPACITANCE = timer("capacitance");
+    // Grid repaint in the game, whole board or the cells around an edit
+    public static final Timer REDRAW = timer("redraw");
+    public static final Timer DROP = timer("drop");
+
+    public static final Counter EVALUATION_HITS = counter("evaluation.hits");
+    public static final Counter EVALUATION_MISSES = counter("evaluation.misses");
+
+    private Metrics() { }
+
+    public static synchronized Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public static synchronized Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    public static synchronized Map<String, TimerStats> timerStats() {
+        Map<String, TimerStats> stats = new LinkedHashMap<>();
+        for (Timer timer : timers.values()) stats.put(timer.getName(), timer.snapshot());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public static synchronized Map<String, Long> counterValues() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Counter counter : counters.values()) values.put(counter.getName(), counter.get());
+        return Collections.unmodifiableMap(values);
+    }
+
+    public static synchronized void reset() {
+        for (Timer timer : timers.values()) timer.reset();
+        for (Counter counter : counters.values()) counter.reset();
+    }
+
+    // Publishes the registry on the platform MBean server; does nothing when already there
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(new MBean(), name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    private static class MBean implements MetricsMXBean {
+        public Map<String, TimerStats> getTimers() { return timerStats(); }
+        public Map<String, Long> getCounters() { return counterValues(); }
+        public boolean isEnabled() { return Metrics.isEnabled(); }
+        public void setEnabled(boolean enabled) { Metrics.setEnabled(enabled); }
+        public boolean isLogging() { return LogSink.isEnabled(); }
+        public void setLogging(boolean logging) { LogSink.setEnabled(logging); }
+        public long getDroppedLogLines() { return LogSink.getDropped(); }
+        public void reset() { Metrics.reset(); }
+    }
+}
@@ -0,0 +1,18 @@
+package src.Metrics;
+
+import java.util.Map;
+
+// JMX view of the registry, under Metrics.OBJECT_NAME (see jconsole or jcmd)
+public interface MetricsMXBean {
+    Map<String, TimerStats> getTimers();
+    Map<String, Long> getCounters();
+
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+
+    boolean isLogging();
+    void setLogging(boolean logging);
+    long getDroppedLogLines();
+
+    void reset();
+}
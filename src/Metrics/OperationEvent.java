@@ -0,0 +1,37 @@
+package src.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One timed operation in a Flight Recorder recording, e.g. with -XX:StartFlightRecording.
+// Emitted as an instant event carrying the measured time, since Timer only sees the end.
+// Costs a single check, and no allocation, while no recording has it enabled.
+@Name("circuit.Operation")
+@Label("Circuit Operation")
+@Category("Circuit Game")
+@Description("A path search, R/C calculation, redraw or drop measured by the metrics registry")
+@StackTrace(false)
+class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+
+    private static final EventType TYPE = EventType.getEventType(OperationEvent.class);
+
+    static void emit(String operation, long nanos) {
+        if (!TYPE.isEnabled()) return;
+        OperationEvent event = new OperationEvent();
+        event.operation = operation;
+        event.time = nanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,94 @@
+package src.Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram for one operation. Buckets are log-linear: eight per power of two, so a
+// percentile is off by at most 1/16 of its value. Recording is lock-free and allocation-free.
+// Usage: long start = timer.start(); ... timer.stop(start);
+public class Timer {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+    // start() result while metrics are switched off; stop() ignores it
+    static final long OFF = Long.MIN_VALUE;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : OFF;
+    }
+
+    public void stop(long start) {
+        if (start == OFF) return;
+        record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucket(nanos));
+        total.add(nanos);
+        long seen = max.get();
+        while (nanos > seen && !max.compareAndSet(seen, nanos)) seen = max.get();
+        OperationEvent.emit(name, nanos);
+    }
+
+    // Not atomic with respect to concurrent recording; each field is a consistent count
+    public TimerStats snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        long largest = max.get();
+        return new TimerStats(name, count, total.sum(), largest,
+                Math.min(largest, percentile(counts, count, 0.50)), Math.min(largest, percentile(counts, count, 0.99)));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        total.reset();
+        max.set(0);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_COUNT) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    // Smallest value that falls into the bucket
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        return (long) (SUB_COUNT + bucket % SUB_COUNT) << (exponent - SUB_BITS);
+    }
+
+    // Midpoint of the bucket holding the given fraction of the samples
+    private static long percentile(long[] counts, long count, double fraction) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                long low = lowerBound(i);
+                long high = i + 1 < counts.length ? lowerBound(i + 1) : Long.MAX_VALUE;
+                return low + (high - low) / 2;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,34 @@
+package src.Metrics;
+
+// Summary of one Timer at a point in time; times in nanoseconds. Also the JMX view of a timer.
+public final class TimerStats {
+    private final String name;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+
+    public TimerStats(String name, long count, long totalNanos, long maxNanos, long p50Nanos, long p99Nanos) {
+        this.name = name;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getMeanNanos() { return count == 0 ? 0 : totalNanos / count; }
+    public long getMaxNanos() { return maxNanos; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%-12s %9d calls  mean %9.1f us  p50 %9.1f us  p99 %9.1f us  max %9.1f us",
+                name, count, getMeanNanos() / 1e3, p50Nanos / 1e3, p99Nanos / 1e3, maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,31 @@
+package src.Simulation;
+
+// One live-preview result, safe to hand across threads. An evaluation first streams a partial
+// result (connectivity only) and then the complete one with R and C.
+public final class Preview {
+    private final long generation;
+    private final boolean complete;
+    private final boolean connected;
+    private final double resistance;
+    private final double capacitance;
+
+    public Preview(long generation, boolean complete, boolean connected, double resistance, double capacitance) {
+        this.generation = generation;
+        this.complete = complete;
+        this.connected = connected;
+        this.resistance = resistance;
+        this.capacitance = capacitance;
+    }
+
+    // Which submitted edit this result belongs to; see PreviewEvaluator.isCurrent
+    public long getGeneration() { return generation; }
+    // False while R and C are still being worked out
+    public boolean isComplete() { return complete; }
+    public boolean isOpen() { return !connected; }
+    // Source reaches Ground with no resistance on the way
+    public boolean isShorted() { return complete && connected && resistance <= 0; }
+    public double getResistance() { return resistance; }
+    public double getCapacitance() { return capacitance; }
+    public double getTau() { return resistance * capacitance; }
+    public double getDuration() { return 5.0 * getTau(); }
+}
@@ -0,0 +1,122 @@
+package src.Simulation;
+
+import src.Board.BoardSnapshot;
+import src.Board.CircuitBoard;
+import src.Board.Evaluation;
+import src.Board.EvaluationCache;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Evaluates the board in the background while the player edits. Each submit() starts a quiet
+// period; edits arriving within it replace the pending evaluation, so a burst of edits costs one
+// evaluation of the last state. An evaluation already running when a newer edit arrives is
+// interrupted and stops at its next checkpoint without reporting: after the copy, after
+// connectivity, between R and C, and inside the engine's solver loops.
+// Results go to the listener on the preview thread, partial first, then complete.
+public class PreviewEvaluator {
+    public static final long DEFAULT_DELAY_MILLIS = 120;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "circuit-preview");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Consumer<Preview> listener;
+    private final long delayNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile EvaluationCache cache = new EvaluationCache();
+    private ScheduledFuture<?> pending;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    public PreviewEvaluator(Consumer<Preview> listener) {
+        this(listener, DEFAULT_DELAY_MILLIS);
+    }
+
+    public PreviewEvaluator(Consumer<Preview> listener, long delayMillis) {
+        this.listener = listener;
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    }
+
+    // Schedules an evaluation of the snapshot (normally board.getPublished() right after an
+    // edit) and supersedes every earlier one. Cheap; safe to call from the FX thread.
+    public synchronized void submit(BoardSnapshot snapshot) {
+        long id = generation.incrementAndGet();
+        if (pending != null) pending.cancel(true);
+        pending = executor.schedule(() -> evaluate(id, snapshot), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Drops whatever is pending or running, e.g. when a new level is loaded
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) pending.cancel(true);
+        pending = null;
+    }
+
+    // True if no edit has been submitted since the one this result belongs to
+    public boolean isCurrent(Preview preview) {
+        return preview.getGeneration() == generation.get();
+    }
+
+    // Shares results with the board, e.g. the game's own cache, so Run answers from it
+    public void setEvaluationCache(EvaluationCache cache) {
+        this.cache = cache;
+    }
+
+    public long getCompletedCount() { return completed.get(); }
+    public long getCancelledCount() { return cancelled.get(); }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void evaluate(long id, BoardSnapshot snapshot) {
+        EvaluationCache cache = this.cache;
+        Evaluation known = cache.get(snapshot.getStateHash());
+        if (known != null) {
+            report(id, new Preview(id, true, known.isValid(), known.getResistance(), known.getCapacitance()));
+            return;
+        }
+
+        CircuitBoard board = snapshot.toBoard();
+        board.setEvaluationCache(cache);
+        if (superseded(id)) return;
+
+        boolean connected = board.hasValidPath();
+        if (!connected) {
+            board.evaluate(); // open: nothing more to work out, but remember it
+            report(id, new Preview(id, true, false, 0.0, 0.0));
+            return;
+        }
+        if (!report(id, new Preview(id, false, true, 0.0, 0.0))) return;
+
+        Evaluation evaluation;
+        try {
+            evaluation = board.evaluate(() -> id != generation.get() || Thread.currentThread().isInterrupted());
+        } catch (CancellationException e) {
+            cancelled.incrementAndGet();
+            return;
+        }
+        report(id, new Preview(id, true, true, evaluation.getResistance(), evaluation.getCapacitance()));
+    }
+
+    private boolean superseded(long id) {
+        if (id == generation.get() && !Thread.currentThread().isInterrupted()) return false;
+        cancelled.incrementAndGet();
+        return true;
+    }
+
+    private boolean report(long id, Preview preview) {
+        if (superseded(id)) return false;
+        if (preview.isComplete()) completed.incrementAndGet();
+        listener.accept(preview);
+        return true;
+    }
+}
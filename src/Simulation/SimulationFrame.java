@@ -0,0 +1,35 @@
+package src.Simulation;
+
+// Immutable state of the running circuit at one instant, safe to hand across threads.
+public final class SimulationFrame {
+    private final long sequence;
+    private final double time;
+    private final double sourceVoltage;
+    private final double[] nodeVoltages;
+    private final double current;
+    private final double bulbDuration;
+    private final boolean bulbLit;
+    private final boolean finished;
+
+    public SimulationFrame(long sequence, double time, double sourceVoltage, double[] nodeVoltages,
+                           double current, double bulbDuration, boolean bulbLit, boolean finished) {
+        this.sequence = sequence;
+        this.time = time;
+        this.sourceVoltage = sourceVoltage;
+        this.nodeVoltages = nodeVoltages.clone();
+        this.current = current;
+        this.bulbDuration = bulbDuration;
+        this.bulbLit = bulbLit;
+        this.finished = finished;
+    }
+
+    public long getSequence() { return sequence; }
+    public double getTime() { return time; }
+    public double getSourceVoltage() { return sourceVoltage; }
+    public double[] getNodeVoltages() { return nodeVoltages.clone(); }
+    public double getCurrent() { return current; }
+    // Precisely located time the bulb stays lit (+Infinity if it never goes out)
+    public double getBulbDuration() { return bulbDuration; }
+    public boolean isBulbLit() { return bulbLit; }
+    public boolean isFinished() { return finished; }
+}
@@ -0,0 +1,121 @@
+package src.Simulation;
+
+import src.Board.Netlist;
+import src.Component.Bulb;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Plays the circuit's transient back in real time on a background thread.
+// Only the newest frame is kept, so a slow consumer simply skips frames.
+public class SimulationScheduler {
+    public static final double STEP = 0.016;     // playback step, one frame at 60 fps
+    private static final int MAX_CATCH_UP = 30;   // steps per tick before giving up on real time
+    private static final double TAIL = 1.0;       // seconds shown after the bulb goes out
+    private static final double MAX_PLAYBACK = 60.0;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "circuit-simulation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<SimulationFrame> latest = new AtomicReference<>();
+    private Run current;
+
+    // The solver is built on the simulation thread as the run's first task, so factoring a large
+    // circuit never holds up the caller. The netlist must not change afterwards.
+    // estimatedTau only seeds the step size used to locate the exact bulb duration.
+    public synchronized void start(Netlist netlist, double sourceVoltage, double estimatedTau) {
+        stop();
+        current = new Run(netlist, sourceVoltage, estimatedTau);
+        current.future = executor.scheduleAtFixedRate(current::tick, 0, (long) (STEP * 1e9), TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (current != null) current.future.cancel(false);
+        current = null;
+        latest.set(null);
+    }
+
+    // Newest published frame, or null when nothing is playing
+    public SimulationFrame latestFrame() {
+        return latest.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private class Run {
+        private final Netlist netlist;
+        private TransientSolver solver;
+        private final double voltage;
+        private final double estimatedTau;
+        // The simulation owns its bulb, so the board's instances are never touched off the FX thread
+        private final Bulb bulb = new Bulb("Bulb");
+        private final double[] nodeVoltages;
+        private double bulbDuration = Double.NaN;
+        private double offTime = Double.NaN;
+        private long startNanos;
+        private long steps = 0;
+        private long sequence = 0;
+        private ScheduledFuture<?> future;
+
+        Run(Netlist netlist, double voltage, double estimatedTau) {
+            this.netlist = netlist;
+            this.voltage = voltage;
+            this.estimatedTau = estimatedTau;
+            this.nodeVoltages = new double[netlist.getNodeCount()];
+        }
+
+        void tick() {
+            if (solver == null) {
+                solver = new TransientSolver(netlist, voltage);
+                // Locate the exact duration once, then rewind for real-time playback
+                double initialStep = estimatedTau > 0 ? estimatedTau / 16 : STEP;
+                bulbDuration = solver.findBulbDuration(initialStep, 1e-6);
+                solver.reset();
+                startNanos = System.nanoTime();
+            }
+
+            long due = (long) ((System.nanoTime() - startNanos) / 1e9 / STEP);
+            int budget = MAX_CATCH_UP;
+            while (steps < due && budget-- > 0) step();
+            // Fell too far behind: skip ahead in a few large steps instead of queueing work.
+            // Power-of-two multiples keep the number of cached factorizations small.
+            while (steps < due) step(Long.highestOneBit(due - steps));
+
+            double time = solver.getTime();
+            boolean finished = solver.isShorted() || time >= MAX_PLAYBACK
+                    || (!Double.isNaN(offTime) && time >= offTime + TAIL)
+                    || (!(solver.getInitialCurrent() > 0) && time >= TAIL);
+            for (int node = 0; node < nodeVoltages.length; node++) nodeVoltages[node] = solver.getNodeVoltage(node);
+            SimulationFrame frame = new SimulationFrame(++sequence, time, voltage, nodeVoltages,
+                    bulb.getCurrent(), bulbDuration, bulb.isLit(), finished);
+
+            synchronized (SimulationScheduler.this) {
+                if (current != this) return; // stopped or replaced while this tick was running
+                latest.set(frame);
+                if (finished) future.cancel(false);
+            }
+        }
+
+        private void step() {
+            step(1);
+        }
+
+        // Implicit integration stays stable with one large step when catching up
+        private void step(long count) {
+            steps += count;
+            double i = solver.advance(STEP * count);
+            boolean wasLit = bulb.isLit();
+
+            bulb.setCurrent(solver.isBulbLit(i) ? i : 0.0);
+            bulb.calculateAttributes();
+            if (wasLit && !bulb.isLit() && Double.isNaN(offTime)) offTime = solver.getTime();
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package src.Simulation;
+
+import src.Board.Netlist;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Backward-Euler transient analysis of a compiled board. Each capacitor is replaced by its
+// companion model (conductance C/h in parallel with a current source), so for a given step h
+// the system matrix is constant: it is Cholesky-factored once per step size and every step
+// after that is a forward/back substitution. Capacitors start uncharged.
+// The unknowns are numbered in reverse Cuthill-McKee order and the factor is stored as an
+// envelope (each row from its first non-zero to the diagonal), so routes and thin circuits cost
+// about as much as their node count. Circuits whose envelope would pass MAX_ENVELOPE entries
+// are solved by conjugate gradient on every step instead.
+public class TransientSolver {
+    // The bulb counts as lit while the supply current is above e^-5 of its initial value,
+    // which is exactly 5 tau for a single RC loop.
+    private static final double LIT_FRACTION = Math.exp(-5.0);
+    private static final int MAX_STEPS = 1_000_000;
+    // 64 MB of factor per step size
+    private static final long MAX_ENVELOPE = 8_000_000;
+    // Step sizes whose matrices are kept; findBulbDuration and catch-up playback try many
+    private static final int CACHED_STEPS = 4;
+    // Keeps nodes that only hang off open capacitors (h = infinity) from making the matrix singular
+    private static final double REGULARIZATION = 1e-12;
+    private static final double CG_TOLERANCE = 1e-12;
+
+    private final Netlist netlist;
+    private final double sourceVoltage;
+
+    private final int[] root;        // node -> representative after shorting zero-ohm resistors
+    private final int source;
+    private final int ground;
+    private final int[] unknown;     // representative -> matrix row, -1 for fixed or floating nodes
+    private final int size;
+    // Envelope layout: row i holds columns first[i]..i starting at rowStart[i]; null above MAX_ENVELOPE
+    private final int[] first;
+    private final int[] rowStart;
+    // Least recently used step size dropped first
+    private final Map<Double, StepMatrix> matrices = new LinkedHashMap<Double, StepMatrix>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Double, StepMatrix> eldest) {
+            return size() > CACHED_STEPS;
+        }
+    };
+
+    private final double initialCurrent;
+    private final double steadyCurrent;
+
+    private double time = 0.0;
+    private double[] voltage;        // per representative node
+    private double[] capacitorVoltage; // per branch, v(from) - v(to) for capacitors
+    private double sourceCurrent;
+
+    public TransientSolver(Netlist netlist, double sourceVoltage) {
+        this.netlist = netlist;
+        this.sourceVoltage = sourceVoltage;
+
+        int nodes = netlist.getNodeCount();
+        root = new int[nodes];
+        for (int i = 0; i < nodes; i++) root[i] = i;
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            if (netlist.getBranchKind(b) == Netlist.RESISTOR && netlist.getBranchValue(b) <= 0) {
+                union(netlist.getBranchFrom(b), netlist.getBranchTo(b));
+            }
+        }
+        for (int i = 0; i < nodes; i++) root[i] = find(i);
+        source = netlist.getSourceNode() == -1 ? -1 : root[netlist.getSourceNode()];
+        ground = netlist.getGroundNode() == -1 ? -1 : root[netlist.getGroundNode()];
+
+        // Unknowns are the nodes tied to the source or ground through some branch
+        unknown = new int[nodes];
+        Arrays.fill(unknown, -1);
+        size = numberUnknowns();
+
+        first = new int[size];
+        for (int i = 0; i < size; i++) first[i] = i;
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int i = unknown[root[netlist.getBranchFrom(b)]];
+            int j = unknown[root[netlist.getBranchTo(b)]];
+            if (i == -1 || j == -1) continue;
+            if (i > j) first[i] = Math.min(first[i], j);
+            else first[j] = Math.min(first[j], i);
+        }
+        long envelope = 0;
+        for (int i = 0; i < size; i++) envelope += i - first[i] + 1;
+        if (envelope <= MAX_ENVELOPE) {
+            rowStart = new int[size];
+            for (int i = 1; i < size; i++) rowStart[i] = rowStart[i - 1] + (i - 1) - first[i - 1] + 1;
+        } else {
+            rowStart = null;
+        }
+
+        voltage = new double[nodes];
+        capacitorVoltage = new double[netlist.getBranchCount()];
+        reset();
+
+        if (isShorted() || source == -1 || ground == -1) {
+            initialCurrent = isShorted() ? Double.POSITIVE_INFINITY : 0.0;
+            steadyCurrent = initialCurrent;
+        } else {
+            initialCurrent = directCurrent(true);
+            steadyCurrent = directCurrent(false);
+        }
+    }
+
+    public void reset() {
+        time = 0.0;
+        Arrays.fill(voltage, 0.0);
+        Arrays.fill(capacitorVoltage, 0.0);
+        if (source != -1) voltage[source] = sourceVoltage;
+        sourceCurrent = 0.0;
+    }
+
+    // Source and ground joined by wires or zero-ohm resistors only
+    public boolean isShorted() {
+        return source != -1 && source == ground;
+    }
+
+    public double getTime() { return time; }
+    public double getSourceCurrent() { return sourceCurrent; }
+    public double getInitialCurrent() { return initialCurrent; }
+    public double getSteadyCurrent() { return steadyCurrent; }
+    public double getNodeVoltage(int node) { return voltage[root[node]]; }
+    public int getNodeCount() { return root.length; }
+
+    public boolean isBulbLit(double current) {
+        return initialCurrent > 0 && Math.abs(current) > LIT_FRACTION * initialCurrent;
+    }
+
+    // Advances by h and returns the current drawn from the source.
+    public double advance(double h) {
+        if (size > 0) {
+            double[] rhs = assembleRhs(h);
+            solve(matrix(h), rhs);
+            for (int node = 0; node < voltage.length; node++) {
+                if (unknown[node] != -1) voltage[node] = rhs[unknown[node]];
+            }
+        }
+
+        double current = 0.0;
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int a = root[netlist.getBranchFrom(b)];
+            int c = root[netlist.getBranchTo(b)];
+            double across = voltage[a] - voltage[c];
+            double through;
+            if (netlist.getBranchKind(b) == Netlist.RESISTOR) {
+                if (netlist.getBranchValue(b) <= 0) continue;
+                through = across / netlist.getBranchValue(b);
+            } else {
+                through = netlist.getBranchValue(b) / h * (across - capacitorVoltage[b]);
+                capacitorVoltage[b] = across;
+            }
+            if (a == source) current += through;
+            if (c == source) current -= through;
+        }
+
+        time += h;
+        sourceCurrent = current;
+        return current;
+    }
+
+    // Time for which the bulb stays lit, located with adaptive step-doubling control and
+    // refined around the moment the current drops below the lit threshold.
+    // Returns +Infinity if it never goes out and NaN for a short circuit.
+    public double findBulbDuration(double initialStep, double tolerance) {
+        if (isShorted()) return Double.NaN;
+        if (!(initialCurrent > 0)) return 0.0;
+        double threshold = LIT_FRACTION * initialCurrent;
+        if (Math.abs(steadyCurrent) >= threshold) return Double.POSITIVE_INFINITY;
+
+        reset();
+        double h = initialStep;
+        double minStep = initialStep * tolerance;
+        double previousCurrent = initialCurrent;
+
+        for (int steps = 0; steps < MAX_STEPS; steps++) {
+            double savedTime = time;
+            double[] savedVoltage = voltage.clone();
+            double[] savedCapacitors = capacitorVoltage.clone();
+
+            // One full step against two half steps; the supply current is what decides the answer,
+            // so its difference is the error measure, scaled to the lit threshold
+            double full = advance(h);
+            double[] fullVoltage = voltage.clone();
+            double[] fullCapacitors = capacitorVoltage.clone();
+            restore(savedTime, savedVoltage, savedCapacitors);
+            advance(h / 2);
+            double current = advance(h / 2);
+
+            double error = Math.abs(full - current) / threshold;
+            if (error > tolerance && h > minStep) {
+                restore(savedTime, savedVoltage, savedCapacitors);
+                h /= 2;
+                continue;
+            }
+
+            // Richardson extrapolation lifts the accepted step to second order
+            for (int i = 0; i < voltage.length; i++) voltage[i] = 2 * voltage[i] - fullVoltage[i];
+            for (int i = 0; i < capacitorVoltage.length; i++) capacitorVoltage[i] = 2 * capacitorVoltage[i] - fullCapacitors[i];
+            current = 2 * current - full;
+            sourceCurrent = current;
+
+            if (Math.abs(current) <= threshold) {
+                if (h > minStep) {
+                    // Crossed the threshold: go back and approach it with smaller steps
+                    restore(savedTime, savedVoltage, savedCapacitors);
+                    h /= 2;
+                    continue;
+                }
+                // Log-linear interpolation is exact for an exponential decay
+                double a = Math.log(Math.abs(previousCurrent));
+                double b = Math.log(Math.max(Math.abs(current), Double.MIN_NORMAL));
+                double fraction = a == b ? 1.0 : (a - Math.log(threshold)) / (a - b);
+                return savedTime + fraction * h;
+            }
+
+            previousCurrent = current;
+            if (error < tolerance / 4) h *= 2;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private void restore(double savedTime, double[] savedVoltage, double[] savedCapacitors) {
+        time = savedTime;
+        System.arraycopy(savedVoltage, 0, voltage, 0, voltage.length);
+        System.arraycopy(savedCapacitors, 0, capacitorVoltage, 0, capacitorVoltage.length);
+    }
+
+    // Supply current with capacitors as shorts (t = 0+) or as open circuits (t -> infinity)
+    private double directCurrent(boolean capacitorsShorted) {
+        double[] saved = voltage.clone();
+        double[] savedCapacitors = capacitorVoltage.clone();
+        double savedTime = time;
+        reset();
+        // A vanishing step makes every capacitor look like a short; an infinite one like an open circuit
+        double current = advance(capacitorsShorted ? 1e-12 : Double.POSITIVE_INFINITY);
+        restore(savedTime, saved, savedCapacitors);
+        return current;
+    }
+
+    private double[] assembleRhs(double h) {
+        double[] rhs = new double[size];
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int a = root[netlist.getBranchFrom(b)];
+            int c = root[netlist.getBranchTo(b)];
+            if (a == c) continue;
+            double g = conductance(b, h);
+            if (g == 0) continue;
+
+            // Fixed neighbours move to the right-hand side
+            if (unknown[a] != -1 && unknown[c] == -1) rhs[unknown[a]] += g * fixedVoltage(c);
+            if (unknown[c] != -1 && unknown[a] == -1) rhs[unknown[c]] += g * fixedVoltage(a);
+
+            // Companion current source of the capacitor pushes its previous voltage
+            if (netlist.getBranchKind(b) == Netlist.CAPACITOR) {
+                double injected = g * capacitorVoltage[b];
+                if (unknown[a] != -1) rhs[unknown[a]] += injected;
+                if (unknown[c] != -1) rhs[unknown[c]] -= injected;
+            }
+        }
+        return rhs;
+    }
+
+    private double fixedVoltage(int node) {
+        return node == source ? sourceVoltage : 0.0;
+    }
+
+    private double conductance(int branch, double h) {
+        double value = netlist.getBranchValue(branch);
+        if (netlist.getBranchKind(branch) == Netlist.RESISTOR) return value > 0 ? 1.0 / value : 0.0;
+        return value > 0 ? value / h : 0.0;
+    }
+
+    // The step matrix for one step size: branch conductances and the diagonal, plus the
+    // envelope Cholesky factor when it fits
+    private static final class StepMatrix {
+        final double[] conductance;
+        final double[] diagonal;
+        double[] factor;
+
+        StepMatrix(int branches, int size) {
+            conductance = new double[branches];
+            diagonal = new double[size];
+        }
+    }
+
+    private StepMatrix matrix(double h) {
+        StepMatrix cached = matrices.get(h);
+        if (cached != null) return cached;
+
+        StepMatrix m = new StepMatrix(netlist.getBranchCount(), size);
+        Arrays.fill(m.diagonal, REGULARIZATION);
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int a = root[netlist.getBranchFrom(b)];
+            int c = root[netlist.getBranchTo(b)];
+            if (a == c) continue;
+            double g = conductance(b, h);
+            m.conductance[b] = g;
+            if (unknown[a] != -1) m.diagonal[unknown[a]] += g;
+            if (unknown[c] != -1) m.diagonal[unknown[c]] += g;
+        }
+        if (rowStart != null) m.factor = factor(m);
+        matrices.put(h, m);
+        return m;
+    }
+
+    private void solve(StepMatrix m, double[] b) {
+        if (m.factor != null) substitute(m.factor, b);
+        else conjugateGradient(m, b);
+    }
+
+    // Lower-triangular Cholesky factor in the envelope layout. Fill-in stays inside each row's
+    // envelope, so the factor takes exactly the envelope's room.
+    private double[] factor(StepMatrix m) {
+        int n = size;
+        double[] l = new double[n == 0 ? 0 : rowStart[n - 1] + n - first[n - 1]];
+        for (int i = 0; i < n; i++) l[rowStart[i] + i - first[i]] = m.diagonal[i];
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int i = unknown[root[netlist.getBranchFrom(b)]];
+            int j = unknown[root[netlist.getBranchTo(b)]];
+            if (i == -1 || j == -1 || i == j) continue;
+            int row = Math.max(i, j);
+            int col = Math.min(i, j);
+            l[rowStart[row] + col - first[row]] -= m.conductance[b];
+        }
+
+        for (int i = 0; i < n; i++) {
+            int fi = first[i];
+            int ri = rowStart[i] - fi; // L[i][k] is l[ri + k]
+            for (int j = fi; j < i; j++) {
+                int rj = rowStart[j] - first[j];
+                double s = l[ri + j];
+                for (int k = Math.max(fi, first[j]); k < j; k++) s -= l[ri + k] * l[rj + k];
+                l[ri + j] = s / l[rj + j];
+            }
+            double d = l[ri + i];
+            for (int k = fi; k < i; k++) d -= l[ri + k] * l[ri + k];
+            l[ri + i] = Math.sqrt(d);
+        }
+        return l;
+    }
+
+    // Solves L L^T x = b in place
+    private void substitute(double[] l, double[] b) {
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            int ri = rowStart[i] - first[i];
+            double s = b[i];
+            for (int k = first[i]; k < i; k++) s -= l[ri + k] * b[k];
+            b[i] = s / l[ri + i];
+        }
+        // L^T by columns of L: once x[i] is known, take it out of the rows above
+        for (int i = n - 1; i >= 0; i--) {
+            int ri = rowStart[i] - first[i];
+            b[i] /= l[ri + i];
+            for (int k = first[i]; k < i; k++) b[k] -= l[ri + k] * b[i];
+        }
+    }
+
+    // Jacobi-preconditioned conjugate gradient for circuits too large to factor; b is replaced
+    // by the solution
+    private void conjugateGradient(StepMatrix m, double[] b) {
+        int n = size;
+        double[] x = new double[n];
+        double[] r = b.clone();
+        double[] z = new double[n];
+        double[] p = new double[n];
+        double[] q = new double[n];
+
+        for (int i = 0; i < n; i++) z[i] = r[i] / m.diagonal[i];
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z);
+        double limit = CG_TOLERANCE * CG_TOLERANCE * dot(b, b);
+
+        for (int iter = 0; iter < 10 * n + 10 && dot(r, r) > limit; iter++) {
+            multiply(m, p, q);
+            double alpha = rz / dot(p, q);
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+                z[i] = r[i] / m.diagonal[i];
+            }
+            double rzNext = dot(r, z);
+            double beta = rzNext / rz;
+            rz = rzNext;
+            for (int i = 0; i < n; i++) p[i] = z[i] + beta * p[i];
+        }
+        System.arraycopy(x, 0, b, 0, n);
+    }
+
+    // q = A p, straight from the branch list (fixed nodes contribute nothing)
+    private void multiply(StepMatrix m, double[] p, double[] q) {
+        for (int i = 0; i < size; i++) q[i] = m.diagonal[i] * p[i];
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            double g = m.conductance[b];
+            if (g == 0) continue;
+            int i = unknown[root[netlist.getBranchFrom(b)]];
+            int j = unknown[root[netlist.getBranchTo(b)]];
+            if (i == -1 || j == -1) continue;
+            q[i] -= g * p[j];
+            q[j] -= g * p[i];
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+
+    private int numberUnknowns() {
+        int nodes = root.length;
+        int[] degree = new int[nodes];
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            degree[root[netlist.getBranchFrom(b)]]++;
+            degree[root[netlist.getBranchTo(b)]]++;
+        }
+        int[] start = new int[nodes + 1];
+        for (int i = 0; i < nodes; i++) start[i + 1] = start[i] + degree[i];
+        int[] fill = Arrays.copyOf(start, nodes);
+        int[] neighbor = new int[start[nodes]];
+        for (int b = 0; b < netlist.getBranchCount(); b++) {
+            int a = root[netlist.getBranchFrom(b)];
+            int c = root[netlist.getBranchTo(b)];
+            neighbor[fill[a]++] = c;
+            neighbor[fill[c]++] = a;
+        }
+
+        // Breadth-first from the terminals, lower-degree neighbours first, then reversed:
+        // every node's neighbours end up numbered close to it, which keeps the envelope narrow
+        boolean[] seen = new boolean[nodes];
+        int[] queue = new int[nodes];
+        int head = 0, tail = 0, count = 0;
+        for (int terminal : new int[] {source, ground}) {
+            if (terminal == -1 || seen[terminal]) continue;
+            seen[terminal] = true;
+            queue[tail++] = terminal;
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            if (u != source && u != ground) unknown[u] = count++;
+            int from = tail;
+            for (int e = start[u]; e < start[u + 1]; e++) {
+                int v = neighbor[e];
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+            for (int i = from + 1; i < tail; i++) {
+                int v = queue[i];
+                int j = i;
+                for (; j > from && degree[queue[j - 1]] > degree[v]; j--) queue[j] = queue[j - 1];
+                queue[j] = v;
+            }
+        }
+        for (int u = 0; u < nodes; u++) {
+            if (unknown[u] != -1) unknown[u] = count - 1 - unknown[u];
+        }
+        return count;
+    }
+
+    private int find(int i) {
+        while (root[i] != i) {
+            root[i] = root[root[i]];
+            i = root[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) root[rootA] = rootB;
+    }
+}
@@ -0,0 +1,365 @@
+package src.Solver;
+
+import src.Board.BoardSnapshot;
+import src.Board.CircuitBoard;
+import src.Board.CustomBoard;
+import src.Component.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Searches for wire, resistor and capacitor placements that light the bulb for 5 s (5·R·C within 0.1).
+// Candidate circuits are single routes from the Source output through every Bulb to the
+// Destination; straight cells of a route can hold a resistor or capacitor in series.
+// Routes are enumerated depth first on a fork-join pool: the first levels fork, deeper levels
+// recurse in place. A branch is dropped as soon as its remaining targets cannot be reached
+// through free cells, and each cell has one piece per pair of sides (a straight wire at 0°
+// and 180° is the same piece), so no two branches describe the same circuit.
+public class AutoSolver {
+    public static final double TARGET_DURATION = 5.0;
+    public static final double TOLERANCE = 0.1;
+
+    // Resistances tried for the series resistors; the capacitance is derived from the target
+    private static final double[] RESISTANCES = {1, 2, 5, 10, 20, 50, 100};
+    private static final int SPLIT_DEPTH = 5;
+
+    private static final int FREE = 0, BLOCKED = 1, BULB = 2, DESTINATION = 3;
+    private static final int[] DIR_ROW = {-1, 0, 1, 0};
+    private static final int[] DIR_COL = {0, 1, 0, -1};
+
+    private final ForkJoinPool pool;
+
+    public AutoSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AutoSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // First solution found, or null if no single route reaches the target duration.
+    // Works on a snapshot, so call it from the thread that edits the board.
+    public Solution solve(CircuitBoard board) {
+        return solve(board.snapshot());
+    }
+
+    // Safe while the board is being edited on another thread: the snapshot never changes
+    public Solution solve(BoardSnapshot snapshot) {
+        Problem problem = new Problem(snapshot);
+        if (problem.sourceCell == -1 || problem.destinationCell == -1) return null;
+
+        int cells = problem.rows * problem.cols;
+        Search root = new Search(problem, problem.sourceCell, problem.sourceDir, 0, problem.bulbCount,
+                new int[cells], new int[cells], new boolean[cells]);
+        pool.invoke(root);
+        return problem.found.get();
+    }
+
+    // Fixed part of the level: what is locked in each cell and where the search starts and ends.
+    // Locked pieces are kept as type, rotation and value; every verification board gets its own.
+    private static class Problem {
+        final int rows;
+        final int cols;
+        final int maxResistors;
+        final int maxCapacitors;
+        final int[] kind;
+        final ComponentType[] fixedType;
+        final int[] fixedRotation;
+        final double[] fixedValue;
+        final int[] bulbDistance;
+        int sourceCell = -1;
+        int sourceDir = -1;
+        int destinationCell = -1;
+        int bulbCount = 0;
+
+        final AtomicReference<Solution> found = new AtomicReference<>();
+
+        Problem(BoardSnapshot board) {
+            rows = board.getRows();
+            cols = board.getCols();
+            maxResistors = board.getMaxResistors();
+            maxCapacitors = board.getMaxCapacitors();
+            kind = new int[rows * cols];
+            fixedType = new ComponentType[rows * cols];
+            fixedRotation = new int[rows * cols];
+            fixedValue = new double[rows * cols];
+
+            // Unlocked pieces are the player's and get replaced; other locked pieces are obstacles
+            for (int cell = 0; cell < kind.length; cell++) {
+                if (board.getType(cell / cols, cell % cols) == null) continue;
+                Component comp = board.getComponent(cell / cols, cell % cols);
+                if (!comp.isLocked()) continue;
+                fixedType[cell] = comp.getType();
+                fixedRotation[cell] = comp.getRotationDegree();
+                fixedValue[cell] = valueOf(comp);
+                kind[cell] = BLOCKED;
+                if (comp instanceof Source && sourceCell == -1) {
+                    sourceCell = cell;
+                    sourceDir = Integer.numberOfTrailingZeros(comp.getPortMask());
+                } else if (comp instanceof Destination && destinationCell == -1) {
+                    kind[cell] = DESTINATION;
+                    destinationCell = cell;
+                } else if (comp instanceof Bulb) {
+                    kind[cell] = BULB;
+                    bulbCount++;
+                }
+            }
+            bulbDistance = distancesFrom(BULB);
+        }
+
+        private static double valueOf(Component comp) {
+            if (comp instanceof Resistor) return ((Resistor) comp).getResistance();
+            if (comp instanceof Capacitor) return ((Capacitor) comp).getCapacitance();
+            if (comp instanceof Source) return comp.getVoltage();
+            return 0;
+        }
+
+        // A new locked piece equal to the one fixed in the cell
+        Component createFixed(int cell) {
+            Component comp = fixedType[cell].create(fixedValue[cell]);
+            while (comp.getRotationDegree() != fixedRotation[cell]) comp.rotate();
+            comp.setLocked(true);
+            return comp;
+        }
+
+        // Packed cell next to the given one, or -1 off the board
+        int neighbour(int cell, int dir) {
+            int row = cell / cols + DIR_ROW[dir];
+            int col = cell % cols + DIR_COL[dir];
+            if (row < 0 || row >= rows || col < 0 || col >= cols) return -1;
+            return row * cols + col;
+        }
+
+        // Steps from every cell to the nearest cell of the given kind, walking through free cells
+        private int[] distancesFrom(int target) {
+            int[] distance = new int[kind.length];
+            int[] queue = new int[kind.length];
+            int head = 0, tail = 0;
+            java.util.Arrays.fill(distance, Integer.MAX_VALUE);
+            for (int cell = 0; cell < kind.length; cell++) {
+                if (kind[cell] == target) {
+                    distance[cell] = 0;
+                    queue[tail++] = cell;
+                }
+            }
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = neighbour(cell, dir);
+                    if (next == -1 || kind[next] != FREE || distance[next] != Integer.MAX_VALUE) continue;
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+            return distance;
+        }
+    }
+
+    // Continues a partial route out of `cell` through side `dir`. Route arrays are owned by the
+    // task: forks get copies, deeper levels mutate them and undo on the way back.
+    private static class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Problem p;
+        private final int cell;
+        private final int dir;
+        private final int length;
+        private final int bulbsLeft;
+        private final int[] route;
+        private final int[] ports;
+        private final boolean[] used;
+
+        private int[] stamp;
+        private int[] queue;
+        private int epoch;
+
+        Search(Problem p, int cell, int dir, int length, int bulbsLeft, int[] route, int[] ports, boolean[] used) {
+            this.p = p;
+            this.cell = cell;
+            this.dir = dir;
+            this.length = length;
+            this.bulbsLeft = bulbsLeft;
+            this.route = route;
+            this.ports = ports;
+            this.used = used;
+        }
+
+        @Override
+        protected void compute() {
+            stamp = new int[used.length];
+            queue = new int[used.length];
+            step(cell, dir, length, bulbsLeft);
+        }
+
+        private void step(int from, int dir, int length, int bulbsLeft) {
+            if (p.found.get() != null) return;
+            int next = p.neighbour(from, dir);
+            if (next == -1 || used[next]) return;
+            int entry = (dir + 2) & 3;
+
+            switch (p.kind[next]) {
+                case DESTINATION:
+                    if (bulbsLeft == 0) evaluate(length);
+                    return;
+                case BULB:
+                    used[next] = true;
+                    branch(next, entry, length, bulbsLeft - 1);
+                    used[next] = false;
+                    return;
+                case FREE:
+                    if (!canFinish(next, bulbsLeft)) return;
+                    used[next] = true;
+                    route[length] = next;
+                    branch(next, entry, length + 1, bulbsLeft);
+                    used[next] = false;
+                    return;
+                default:
+            }
+        }
+
+        // Tries every way out of `cell` other than `entry`, nearest to the next target first
+        private void branch(int cell, int entry, int length, int bulbsLeft) {
+            int[] exits = new int[3];
+            int count = 0;
+            for (int turn = 1; turn <= 3; turn++) exits[count++] = (entry + turn) & 3;
+            sortByDistance(cell, exits, bulbsLeft);
+
+            List<Search> forks = length < SPLIT_DEPTH ? new ArrayList<>() : null;
+            boolean free = p.kind[cell] == FREE;
+            for (int exit : exits) {
+                if (free) ports[length - 1] = (1 << entry) | (1 << exit);
+                if (forks != null) {
+                    forks.add(new Search(p, cell, exit, length, bulbsLeft,
+                            route.clone(), ports.clone(), used.clone()));
+                } else {
+                    step(cell, exit, length, bulbsLeft);
+                }
+            }
+            if (forks != null) invokeAll(forks);
+        }
+
+        private void sortByDistance(int cell, int[] exits, int bulbsLeft) {
+            int[] key = new int[exits.length];
+            for (int i = 0; i < exits.length; i++) {
+                int next = p.neighbour(cell, exits[i]);
+                if (next == -1) key[i] = Integer.MAX_VALUE;
+                else if (next == p.destinationCell) key[i] = bulbsLeft == 0 ? -1 : Integer.MAX_VALUE;
+                else key[i] = bulbsLeft > 0 ? p.bulbDistance[next] : 0;
+            }
+            for (int i = 1; i < exits.length; i++) {
+                for (int j = i; j > 0 && key[j] < key[j - 1]; j--) {
+                    int k = key[j]; key[j] = key[j - 1]; key[j - 1] = k;
+                    int e = exits[j]; exits[j] = exits[j - 1]; exits[j - 1] = e;
+                }
+            }
+        }
+
+        // Connectivity bound: from `start`, the unused free cells must still reach an unvisited
+        // Bulb (if any are left) and the Destination.
+        private boolean canFinish(int start, int bulbsLeft) {
+            epoch++;
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            stamp[start] = epoch;
+            boolean bulbReached = bulbsLeft == 0;
+            boolean destinationReached = false;
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int dir = 0; dir < 4; dir++) {
+                    int next = p.neighbour(cell, dir);
+                    if (next == -1 || used[next] || stamp[next] == epoch) continue;
+                    int kind = p.kind[next];
+                    if (kind == DESTINATION) destinationReached = true;
+                    if (kind == BULB) bulbReached = true;
+                    if (kind == FREE || kind == BULB) {
+                        stamp[next] = epoch;
+                        queue[tail++] = next;
+                    }
+                }
+                if (bulbReached && destinationReached) return true;
+            }
+            return false;
+        }
+
+        // Complete route of `length` free cells: put the resistors and capacitors on its
+        // straight cells and check the result on a real board.
+        private void evaluate(int length) {
+            List<Integer> straights = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                if (ports[i] == 0b1010 || ports[i] == 0b0101) straights.add(i);
+            }
+
+            // Series pieces are interchangeable, so only the counts matter
+            int maxR = p.maxResistors == -1 ? straights.size() : Math.min(p.maxResistors, straights.size());
+            int maxC = p.maxCapacitors == -1 ? straights.size() : Math.min(p.maxCapacitors, straights.size());
+            for (int total = 2; total <= straights.size(); total++) {
+                for (int nr = 1; nr < total; nr++) {
+                    int nc = total - nr;
+                    if (nr > maxR || nc > maxC) continue;
+                    for (double r : RESISTANCES) {
+                        // duration = 5 · (nr · r) · (c / nc)
+                        double c = Math.round(TARGET_DURATION * nc / (5.0 * nr * r) * 1000) / 1000.0;
+                        if (c <= 0) continue;
+                        if (Math.abs(5.0 * nr * r * c / nc - TARGET_DURATION) >= TOLERANCE) continue;
+                        if (verify(length, straights, nr, r, nc, c)) return;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean verify(int length, List<Integer> straights, int nr, double r, int nc, double c) {
+            List<Solution.Placement> placements = new ArrayList<>(length);
+            int straight = 0;
+            for (int i = 0; i < length; i++) {
+                int row = route[i] / p.cols;
+                int col = route[i] % p.cols;
+                ComponentType type;
+                double value = 0;
+                if (straight < straights.size() && straights.get(straight) == i) {
+                    if (straight < nr) {
+                        type = ComponentType.RESISTOR;
+                        value = r;
+                    } else if (straight < nr + nc) {
+                        type = ComponentType.CAPACITOR;
+                        value = c;
+                    } else {
+                        type = ComponentType.WIRE;
+                    }
+                    straight++;
+                } else {
+                    type = ComponentType.CORNER_WIRE;
+                }
+                placements.add(new Solution.Placement(row, col, type, type.rotationFor(ports[i]), value));
+            }
+
+            CustomBoard board = new CustomBoard(p.rows, p.cols, p.maxResistors, p.maxCapacitors);
+            for (int cell = 0; cell < p.fixedType.length; cell++) {
+                if (p.fixedType[cell] != null) board.placeComponent(cell / p.cols, cell % p.cols, p.createFixed(cell));
+            }
+            Solution candidate = new Solution(placements, 0, 0);
+            candidate.applyTo(board);
+
+            // Neighbouring route cells may touch each other; only the real board can tell
+            List<Component> path = board.getValidPath();
+            if (path == null || board.countComponents(ComponentType.BULB) > 0 && !containsBulbs(path)) return false;
+            double resistance = board.calculateTotalResistance(path);
+            double capacitance = board.calculateTotalCapacitance(path);
+            if (resistance <= 0 || Math.abs(5.0 * resistance * capacitance - TARGET_DURATION) >= TOLERANCE) return false;
+
+            p.found.compareAndSet(null, new Solution(placements, resistance, capacitance));
+            return true;
+        }
+
+        private boolean containsBulbs(List<Component> path) {
+            int bulbs = 0;
+            for (Component comp : path) {
+                if (comp instanceof Bulb) bulbs++;
+            }
+            return bulbs == p.bulbCount;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package src.Solver;
+
+import src.Board.CircuitBoard;
+import src.Component.Component;
+import src.Component.ComponentType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Placements that complete a level, with the values the board evaluated to.
+public class Solution {
+    public static class Placement {
+        public final int row;
+        public final int col;
+        public final ComponentType type;
+        public final int rotation;
+        public final double value;
+
+        // rotation is 0, 90, 180 or 270
+        public Placement(int row, int col, ComponentType type, int rotation, double value) {
+            if (rotation < 0 || rotation >= 360 || rotation % 90 != 0) {
+                throw new IllegalArgumentException("Rotation must be 0, 90, 180 or 270: " + rotation);
+            }
+            this.row = row;
+            this.col = col;
+            this.type = type;
+            this.rotation = rotation;
+            this.value = value;
+        }
+
+        public Component create() {
+            Component component = type.create(value);
+            while (component.getRotationDegree() != rotation) component.rotate();
+            return component;
+        }
+
+        public String toString() {
+            String text = type + " at (" + row + ", " + col + ") " + rotation + "°";
+            if (type == ComponentType.RESISTOR || type == ComponentType.CAPACITOR) text += " = " + value;
+            return text;
+        }
+    }
+
+    private final List<Placement> placements;
+    private final double resistance;
+    private final double capacitance;
+
+    Solution(List<Placement> placements, double resistance, double capacitance) {
+        this.placements = Collections.unmodifiableList(new ArrayList<>(placements));
+        this.resistance = resistance;
+        this.capacitance = capacitance;
+    }
+
+    // Places every component; false if one of the cells is already taken.
+    public boolean applyTo(CircuitBoard board) {
+        boolean placedAll = true;
+        for (Placement placement : placements) {
+            placedAll &= board.placeComponent(placement.row, placement.col, placement.create());
+        }
+        return placedAll;
+    }
+
+    public List<Placement> getPlacements() { return placements; }
+    public double getResistance() { return resistance; }
+    public double getCapacitance() { return capacitance; }
+    public double getDuration() { return 5.0 * resistance * capacitance; }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("R = %.3f Ω, C = %.3f F, duration = %.3f s%n", resistance, capacitance, getDuration()));
+        for (Placement placement : placements) {
+            sb.append("  ").append(placement).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
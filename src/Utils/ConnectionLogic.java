@@ -4,41 +4,23 @@ import src.Board.CircuitBoard;
 import src.Component.*;
 
 public class ConnectionLogic {
+    // Port bits, see ComponentType
+    public static final int TOP = 1;
+    public static final int RIGHT = 2;
+    public static final int BOTTOM = 4;
+    public static final int LEFT = 8;
+
+    // Direction vectors indexed by port index: Top, Right, Bottom, Left
+    private static final int[] DIR_ROW = {-1, 0, 1, 0};
+    private static final int[] DIR_COL = {0, 1, 0, -1};
+
+    public static int getPortMask(Component c) {
+        return c == null ? 0 : c.getPortMask();
+    }
 
     public static boolean[] getActivePorts(Component c) {
-        boolean[] ports = {false, false, false, false}; // Top, Right, Bottom, Left, inactive by default
-        if (c == null) return ports;
-
-        int rot = c.getRotationDegree() % 360;
-
-        if (c instanceof CornerWire) {
-            if (rot == 0)        { ports[1]=true; ports[2]=true; }
-            else if (rot == 90)  { ports[2]=true; ports[3]=true; }
-            else if (rot == 180) { ports[3]=true; ports[0]=true; }
-            else if (rot == 270) { ports[0]=true; ports[1]=true; }
-        } else if (c instanceof Source) {
-            if (rot == 0)        { ports[1]=true;}
-            else if (rot == 90)  { ports[2]=true;}
-            else if (rot == 180) { ports[3]=true;}
-            else if (rot == 270) { ports[0]=true;}
-        } else if (c instanceof Destination || c instanceof Bulb) {
-            ports[0]=true; ports[1]=true; ports[2]=true; ports[3]=true;
-        }
-        else if (c instanceof TWire) {
-            if (rot == 0)       { ports[1]=true; ports[2]=true; ports[3]=true; }
-            else if (rot == 90) { ports[2]=true; ports[3]=true; ports[0]=true; }
-            else if (rot == 180){ ports[3]=true; ports[0]=true; ports[1]=true; }
-            else if (rot == 270){ ports[0]=true; ports[1]=true; ports[2]=true; }
-        }
-        else if (c instanceof Wire || c instanceof Resistor || c instanceof Capacitor) {
-            if (rot == 0 || rot == 180) {
-                ports[1] = true; ports[3] = true;
-            } else {
-                ports[0] = true; ports[2] = true;
-            }
-        }
-
-        return ports;
+        int mask = getPortMask(c);
+        return new boolean[] {(mask & TOP) != 0, (mask & RIGHT) != 0, (mask & BOTTOM) != 0, (mask & LEFT) != 0};
     }
 
     public static boolean areConnected(Component source, Component target, int dRow, int dCol) {
@@ -53,69 +35,36 @@ public class ConnectionLogic {
 
         if (srcDirIndex == -1) return false;
 
-        // 2. Determine Target Direction Index (Opposite Side)
-        int tgtDirIndex = (srcDirIndex + 2) % 4;
+        // 2. Target Direction Index is the opposite side
+        int tgtDirIndex = (srcDirIndex + 2) & 3;
 
-        // 3. Check if both components have active ports in the required directions
-        boolean[] srcPorts = getActivePorts(source);
-        boolean[] tgtPorts = getActivePorts(target);
-
-        // 4. Return connection status
-        return srcPorts[srcDirIndex] && tgtPorts[tgtDirIndex];
+        // 3. Both components need an active port in the required directions
+        return (source.getPortMask() & (1 << srcDirIndex)) != 0
+                && (target.getPortMask() & (1 << tgtDirIndex)) != 0;
     }
 
     public static int getFlowCount(CircuitBoard board, Component c) {
         if (c == null || board == null) return 0;
 
         // 1. Find the component's position
-        int rows = board.getRows();
-        int cols = board.getCols();
-        int r = -1, col = -1;
-
-        outer: for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (board.getComponent(i, j) == c) {
-                    r = i; col = j; break outer;
-                }
-            }
-        }
+        int cell = board.findPosition(c);
+        if (cell == -1) return 0; // Not found
 
-        if (r == -1) return 0; // Not found
+        int r = cell / board.getCols();
+        int col = cell % board.getCols();
 
+        int myPorts = c.getPortMask();
         int count = 0;
-        // Direction vectors: Top, Bottom, Left, Right
-        int[][] dirs = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
-
-        for (int[] d : dirs) {
-            int nr = r + d[0];
-            int nc = col + d[1];
-
-            // Check if neighbor is within bounds
-            if (nr >= 0 && nr < rows && nc >= 0 && nc < cols) {
-                Component neighbor = board.getComponent(nr, nc);
-
-                if (neighbor != null) {
-                    // 2. Determine "My" Direction Index (0=Top, 1=Right, 2=Bottom, 3=Left)
-                    int myDirIndex = -1;
-                    if (d[0] == -1) myDirIndex = 0;      // Top
-                    else if (d[0] == 1) myDirIndex = 2;  // Bottom
-                    else if (d[1] == -1) myDirIndex = 3; // Left
-                    else if (d[1] == 1) myDirIndex = 1;  // Right
-
-                    // 3. Determine "Neighbor's" Required Port (Opposite Side)
-                    // If I look Up (0), I need their Down (2) port.
-                    int neighborDirIndex = (myDirIndex + 2) % 4;
-
-                    // 4. Check Connection
-                    boolean[] myPorts = getActivePorts(c);
-                    boolean[] neighborPorts = getActivePorts(neighbor);
-
-                    if (myPorts[myDirIndex] && neighborPorts[neighborDirIndex]) {
-                        count++;
-                    }
-                }
+
+        for (int dir = 0; dir < 4; dir++) {
+            if ((myPorts & (1 << dir)) == 0) continue;
+
+            // 2. The neighbour must have the opposite port open (I look Up, they need Down)
+            Component neighbor = board.getComponent(r + DIR_ROW[dir], col + DIR_COL[dir]);
+            if ((getPortMask(neighbor) & (1 << ((dir + 2) & 3))) != 0) {
+                count++;
             }
         }
         return count;
     }
-}
\ No newline at end of file
+}
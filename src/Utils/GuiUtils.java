@@ -1,5 +1,6 @@
 package src.Utils;
 
+import src.Component.*;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -7,14 +8,31 @@ import javafx.scene.shape.Circle;
 public class GuiUtils {
 
     public static void addConnectionMarker(Pane parentCell, double xOffset, double yOffset) {
+        // Move the dot to the top
+        parentCell.getChildren().add(createConnectionMarker(xOffset, yOffset));
+    }
+
+    public static Circle createConnectionMarker(double xOffset, double yOffset) {
         Circle dot = new Circle(4, Color.YELLOW);
         dot.setStroke(Color.BLACK);
         dot.setStrokeWidth(1);
-        
+
         if (xOffset != 0) dot.setTranslateX(xOffset);
         if (yOffset != 0) dot.setTranslateY(yOffset);
-        
-        // Move the dot to the top
-        parentCell.getChildren().add(dot);
+        return dot;
+    }
+
+    public static String describe(Component comp) {
+        String info = comp.getName();
+        if (comp instanceof Resistor) {
+            info += "\nResistance: " + ((Resistor)comp).getResistance() + " Ω";
+        } else if (comp instanceof Capacitor) {
+            info += "\nCapacitance: " + ((Capacitor)comp).getCapacitance() + " F";
+        } else if (comp instanceof Bulb) {
+            info += "\nState: " + (((Bulb)comp).isLit() ? "ON" : "OFF");
+        } else if (comp instanceof Source) {
+            info += "\nVoltage: " + ((Source)comp).getVoltage() + " V";
+        }
+        return info;
     }
-}
\ No newline at end of file
+}
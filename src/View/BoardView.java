@@ -0,0 +1,19 @@
+package src.View;
+
+import src.Board.CircuitBoard;
+import javafx.scene.Node;
+
+public interface BoardView {
+    interface CellActions {
+        void onDrop(int row, int col, String type, double value);
+        void onPrimaryClick(int row, int col, Node cell);
+        void onSecondaryClick(int row, int col);
+    }
+
+    Node getNode();
+    void setBoard(CircuitBoard board);
+    void setBulbLit(boolean lit);
+    void refreshAll();
+    // Re-renders a cell and its four neighbours (their connection markers depend on it)
+    void refreshAround(int row, int col);
+}
@@ -0,0 +1,296 @@
+package src.View;
+
+import src.Board.CircuitBoard;
+import src.Component.*;
+import src.Utils.ConnectionLogic;
+import src.Utils.GuiUtils;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.TransferMode;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+
+// Draws the board on a single Canvas the size of the viewport. Only visible cells are painted,
+// so memory and frame time do not grow with the board. Wheel zooms around the cursor,
+// dragging with the left button pans.
+public class CanvasBoardView extends Region implements BoardView {
+    private static final double MIN_CELL = 4;
+    private static final double MAX_CELL = 120;
+    private static final double DETAIL_CELL = 14; // below this size only the fills are drawn
+
+    private final CellActions actions;
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tip = new Tooltip();
+    private CircuitBoard board;
+    private boolean bulbLit = false;
+
+    private double cellSize = 60;
+    private double offsetX = 0; // board pixel shown at the left edge of the viewport
+    private double offsetY = 0;
+    private double pressX, pressY;
+    private int hoverCell = -1;
+
+    public CanvasBoardView(CellActions actions) {
+        this.actions = actions;
+        getChildren().add(canvas);
+        setMinSize(0, 0);
+
+        tip.setStyle("-fx-font-size: 14px; -fx-background-color: #222; -fx-text-fill: white;");
+        tip.setShowDelay(javafx.util.Duration.millis(50));
+
+        canvas.setOnScroll(event -> {
+            double factor = event.getDeltaY() > 0 ? 1.1 : 1 / 1.1;
+            zoomAt(event.getX(), event.getY(), factor);
+            event.consume();
+        });
+
+        canvas.setOnMousePressed(event -> {
+            pressX = event.getX();
+            pressY = event.getY();
+        });
+
+        canvas.setOnMouseDragged(event -> {
+            if (event.getButton() != MouseButton.PRIMARY) return;
+            offsetX -= event.getX() - pressX;
+            offsetY -= event.getY() - pressY;
+            pressX = event.getX();
+            pressY = event.getY();
+            clampOffsets();
+            redraw();
+        });
+
+        // Click (left for rotate, right for remove); a left drag is a pan, not a click
+        canvas.setOnMouseClicked(event -> {
+            int cell = cellAt(event.getX(), event.getY());
+            if (cell == -1) return;
+            int row = cell / board.getCols();
+            int col = cell % board.getCols();
+            if (event.getButton() == MouseButton.SECONDARY) {
+                actions.onSecondaryClick(row, col);
+            } else if (event.getButton() == MouseButton.PRIMARY && event.isStillSincePress()
+                    && board.getComponent(row, col) != null) {
+                actions.onPrimaryClick(row, col, this);
+            }
+        });
+
+        canvas.setOnMouseMoved(event -> {
+            int cell = cellAt(event.getX(), event.getY());
+            if (cell == hoverCell) return;
+            hoverCell = cell;
+            Component comp = cell == -1 ? null : board.getComponent(cell / board.getCols(), cell % board.getCols());
+            if (comp == null) {
+                Tooltip.uninstall(canvas, tip);
+            } else {
+                tip.setText(GuiUtils.describe(comp));
+                Tooltip.install(canvas, tip);
+            }
+        });
+
+        canvas.setOnDragOver(event -> {
+            if (event.getDragboard().hasString() && cellAt(event.getX(), event.getY()) != -1) {
+                event.acceptTransferModes(TransferMode.COPY);
+            }
+            event.consume();
+        });
+
+        canvas.setOnDragDropped(event -> {
+            Dragboard db = event.getDragboard();
+            int cell = cellAt(event.getX(), event.getY());
+            boolean success = false;
+            if (db.hasString() && cell != -1) {
+                String[] data = db.getString().split(":");
+                String type = data[0];
+                double val = (data.length > 1) ? Double.parseDouble(data[1]) : 0.0;
+                actions.onDrop(cell / board.getCols(), cell % board.getCols(), type, val);
+                success = true;
+            }
+            event.setDropCompleted(success);
+            event.consume();
+        });
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void setBoard(CircuitBoard board) {
+        this.board = board;
+        this.offsetX = 0;
+        this.offsetY = 0;
+        this.hoverCell = -1;
+        redraw();
+    }
+
+    @Override
+    public void setBulbLit(boolean lit) {
+        this.bulbLit = lit;
+    }
+
+    @Override
+    public void refreshAll() {
+        redraw();
+    }
+
+    @Override
+    public void refreshAround(int row, int col) {
+        if (board == null) return;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        int[] rows = {row, row - 1, row + 1, row, row};
+        int[] cols = {col, col, col, col - 1, col + 1};
+        // Markers and line caps spill over cell edges: clip to the five cells so nothing around
+        // them is erased, and redraw the ring around them, whose spill lands inside the clip
+        int[] ringRows = {row - 2, row + 2, row, row, row - 1, row - 1, row + 1, row + 1};
+        int[] ringCols = {col, col, col - 2, col + 2, col - 1, col + 1, col - 1, col + 1};
+        gc.save();
+        gc.beginPath();
+        for (int i = 0; i < rows.length; i++) {
+            gc.rect(cols[i] * cellSize - offsetX, rows[i] * cellSize - offsetY, cellSize, cellSize);
+        }
+        gc.clip();
+        // Fill first: markers overlap the neighbouring cell's edge
+        for (int i = 0; i < rows.length; i++) drawCell(gc, rows[i], cols[i], false);
+        for (int i = 0; i < rows.length; i++) drawCell(gc, rows[i], cols[i], true);
+        for (int i = 0; i < ringRows.length; i++) drawCell(gc, ringRows[i], ringCols[i], true);
+        gc.restore();
+    }
+
+    public void zoomAt(double x, double y, double factor) {
+        double size = Math.max(MIN_CELL, Math.min(MAX_CELL, cellSize * factor));
+        // Keep the board point under the cursor fixed
+        offsetX = (offsetX + x) * size / cellSize - x;
+        offsetY = (offsetY + y) * size / cellSize - y;
+        cellSize = size;
+        clampOffsets();
+        redraw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            clampOffsets();
+            redraw();
+        }
+    }
+
+    // Packed row * cols + col under the viewport point, or -1
+    private int cellAt(double x, double y) {
+        if (board == null) return -1;
+        int col = (int) Math.floor((x + offsetX) / cellSize);
+        int row = (int) Math.floor((y + offsetY) / cellSize);
+        if (row < 0 || row >= board.getRows() || col < 0 || col >= board.getCols()) return -1;
+        return row * board.getCols() + col;
+    }
+
+    private void clampOffsets() {
+        if (board == null) return;
+        double margin = cellSize * 2;
+        offsetX = clamp(offsetX, -margin, Math.max(-margin, board.getCols() * cellSize - canvas.getWidth() + margin));
+        offsetY = clamp(offsetY, -margin, Math.max(-margin, board.getRows() * cellSize - canvas.getHeight() + margin));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setFill(Color.web("#f4f4f4"));
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (board == null) return;
+
+        int firstCol = Math.max(0, (int) Math.floor(offsetX / cellSize));
+        int firstRow = Math.max(0, (int) Math.floor(offsetY / cellSize));
+        int lastCol = Math.min(board.getCols() - 1, (int) Math.floor((offsetX + canvas.getWidth()) / cellSize));
+        int lastRow = Math.min(board.getRows() - 1, (int) Math.floor((offsetY + canvas.getHeight()) / cellSize));
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                for (int c = firstCol; c <= lastCol; c++) {
+                    drawCell(gc, r, c, pass == 1);
+                }
+            }
+        }
+    }
+
+    // First pass paints the cell background, second pass the wiring and connection markers
+    private void drawCell(GraphicsContext gc, int row, int col, boolean detail) {
+        if (row < 0 || row >= board.getRows() || col < 0 || col >= board.getCols()) return;
+        double x = col * cellSize - offsetX;
+        double y = row * cellSize - offsetY;
+        if (x + cellSize < 0 || y + cellSize < 0 || x > canvas.getWidth() || y > canvas.getHeight()) return;
+
+        Component comp = board.getComponent(row, col);
+        if (!detail) {
+            gc.setFill(fillFor(comp));
+            gc.fillRect(x, y, cellSize, cellSize);
+            gc.setStroke(comp instanceof Block ? Color.GRAY : Color.BLACK);
+            gc.setLineWidth(1);
+            gc.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+            return;
+        }
+        if (comp == null || cellSize < DETAIL_CELL) return;
+
+        double cx = x + cellSize / 2;
+        double cy = y + cellSize / 2;
+        double half = cellSize / 2;
+        int ports = comp.getPortMask();
+
+        if (comp instanceof Source) {
+            // Arrow towards the single output port
+            double dx = (ports & ConnectionLogic.RIGHT) != 0 ? 1 : (ports & ConnectionLogic.LEFT) != 0 ? -1 : 0;
+            double dy = (ports & ConnectionLogic.BOTTOM) != 0 ? 1 : (ports & ConnectionLogic.TOP) != 0 ? -1 : 0;
+            double s = cellSize / 6;
+            gc.setFill(Color.color(1, 1, 1, 0.7));
+            gc.fillPolygon(
+                    new double[] {cx - dx * s + dy * s / 2, cx - dx * s - dy * s / 2, cx + dx * s},
+                    new double[] {cy - dy * s - dx * s / 2, cy - dy * s + dx * s / 2, cy + dy * s},
+                    3);
+        } else if (!(comp instanceof Bulb) && !(comp instanceof Destination)) {
+            // One stroke from the centre to every open side
+            gc.setStroke(Color.color(1, 1, 1, 0.9));
+            gc.setLineWidth(Math.max(1, cellSize / 15));
+            gc.setLineCap(StrokeLineCap.ROUND);
+            if ((ports & ConnectionLogic.TOP) != 0) gc.strokeLine(cx, cy, cx, cy - half);
+            if ((ports & ConnectionLogic.RIGHT) != 0) gc.strokeLine(cx, cy, cx + half, cy);
+            if ((ports & ConnectionLogic.BOTTOM) != 0) gc.strokeLine(cx, cy, cx, cy + half);
+            if ((ports & ConnectionLogic.LEFT) != 0) gc.strokeLine(cx, cy, cx - half, cy);
+        }
+
+        // Connection markers on the right and bottom edges
+        double radius = Math.max(2, cellSize / 15);
+        gc.setFill(Color.YELLOW);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        if (ConnectionLogic.areConnected(comp, board.getComponent(row, col + 1), 0, 1)) {
+            gc.fillOval(x + cellSize - radius, cy - radius, radius * 2, radius * 2);
+            gc.strokeOval(x + cellSize - radius, cy - radius, radius * 2, radius * 2);
+        }
+        if (ConnectionLogic.areConnected(comp, board.getComponent(row + 1, col), 1, 0)) {
+            gc.fillOval(cx - radius, y + cellSize - radius, radius * 2, radius * 2);
+            gc.strokeOval(cx - radius, y + cellSize - radius, radius * 2, radius * 2);
+        }
+    }
+
+    private Color fillFor(Component comp) {
+        if (comp == null) return Color.WHITE;
+        if (comp instanceof Source) return Color.RED;
+        if (comp instanceof Destination) return Color.BLUE;
+        if (comp instanceof Resistor) return Color.ORANGE;
+        if (comp instanceof Bulb) return bulbLit ? Color.YELLOW : Color.DARKKHAKI;
+        if (comp instanceof Capacitor) return Color.GREEN;
+        if (comp instanceof Block) return Color.DARKGRAY;
+        return Color.BLACK;
+    }
+}
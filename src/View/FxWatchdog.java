@@ -0,0 +1,213 @@
+package src.View;
+
+import src.Metrics.Counter;
+import src.Metrics.LogSink;
+import src.Metrics.Metrics;
+import src.Metrics.Timer;
+import src.Metrics.TimerStats;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.scene.Scene;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Times what runs on the FX thread: layout pulses (from the scene's pre- to post-layout
+// listener) and the game's event handlers (wrapped with handler() or run()). A section that is
+// still running when its budget runs out has the FX thread's stack sampled by a daemon thread
+// (one wake-up per section, cancelled if it ends in time), so a
+// stall report shows where the time went, not just that it went. Keeps the most recent pulse
+// and handler times for a p50/p99 summary.
+// begin/end and the wrappers must be called on the watched thread.
+public class FxWatchdog {
+    public static final long DEFAULT_BUDGET_MILLIS = 16;
+    private static final int WINDOW = 600;
+    private static final int KEPT_STALLS = 20;
+
+    // One section that went over the budget
+    public static final class Stall {
+        private final String section;
+        private final long nanos;
+        private final StackTraceElement[] stack;
+
+        Stall(String section, long nanos, StackTraceElement[] stack) {
+            this.section = section;
+            this.nanos = nanos;
+            this.stack = stack;
+        }
+
+        public String getSection() { return section; }
+        public long getNanos() { return nanos; }
+        // Taken while the section was running; empty if it ended before the sampler came by
+        public StackTraceElement[] getStack() { return stack.clone(); }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%s took %.1f ms", section, nanos / 1e6));
+            if (stack.length == 0) text.append(" (no stack sample)");
+            for (StackTraceElement frame : stack) text.append(System.lineSeparator()).append("    at ").append(frame);
+            return text.toString();
+        }
+    }
+
+    private static final class Section {
+        final String name;
+        final long start;
+        final boolean pulse;
+        volatile StackTraceElement[] stack;
+        ScheduledFuture<?> check;
+
+        Section(String name, long start, boolean pulse) {
+            this.name = name;
+            this.start = start;
+            this.pulse = pulse;
+        }
+    }
+
+    // Ring of the last WINDOW times
+    private static final class Window {
+        private final long[] nanos = new long[WINDOW];
+        private int size;
+        private int next;
+
+        synchronized void add(long value) {
+            nanos[next] = value;
+            next = (next + 1) % WINDOW;
+            if (size < WINDOW) size++;
+        }
+
+        synchronized TimerStats summary(String name) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long value : sorted) total += value;
+            if (size == 0) return new TimerStats(name, 0, 0, 0, 0, 0);
+            return new TimerStats(name, size, total, sorted[size - 1], rank(sorted, 0.50), rank(sorted, 0.99));
+        }
+
+        private static long rank(long[] sorted, double fraction) {
+            return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+        }
+    }
+
+    private final Thread watched;
+    private final long budgetNanos;
+    private final Consumer<Stall> listener;
+    private final Window pulses = new Window();
+    private final Window handlers = new Window();
+    private final Deque<Stall> stalls = new ArrayDeque<>();
+    private final Timer pulseTimer = Metrics.timer("fx.pulse");
+    private final Timer handlerTimer = Metrics.timer("fx.handler");
+    private final Counter stallCounter = Metrics.counter("fx.stalls");
+    private final ScheduledThreadPoolExecutor sampler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "fx-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Outermost running section; nested ones are part of it
+    private volatile Section current;
+    private int depth;
+    private volatile long stallCount;
+
+    // Watches the calling thread (the FX thread when created from Application.start)
+    public FxWatchdog(Consumer<Stall> listener) {
+        this(Thread.currentThread(), DEFAULT_BUDGET_MILLIS, listener);
+    }
+
+    public FxWatchdog(Thread watched, long budgetMillis, Consumer<Stall> listener) {
+        if (budgetMillis <= 0) throw new IllegalArgumentException("Budget must be positive: " + budgetMillis);
+        this.watched = watched;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.listener = listener;
+        // Sections mostly end in time; drop their cancelled checks instead of queueing them
+        sampler.setRemoveOnCancelPolicy(true);
+    }
+
+    // Times the layout pass of every pulse of the scene
+    public void install(Scene scene) {
+        scene.addPreLayoutPulseListener(() -> begin("pulse", true));
+        scene.addPostLayoutPulseListener(this::end);
+    }
+
+    public <T extends Event> EventHandler<T> handler(String name, EventHandler<T> handler) {
+        return event -> run(name, () -> handler.handle(event));
+    }
+
+    public void run(String name, Runnable action) {
+        begin(name, false);
+        try {
+            action.run();
+        } finally {
+            end();
+        }
+    }
+
+    public void begin(String name) {
+        begin(name, false);
+    }
+
+    private void begin(String name, boolean pulse) {
+        if (depth++ > 0) return;
+        Section section = new Section(name, System.nanoTime(), pulse);
+        current = section;
+        section.check = sampler.schedule(() -> sample(section), budgetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void end() {
+        if (depth == 0) return; // a post-layout pulse without its pre-layout half
+        if (--depth > 0) return;
+        Section section = current;
+        current = null;
+        section.check.cancel(false);
+        long nanos = System.nanoTime() - section.start;
+
+        (section.pulse ? pulses : handlers).add(nanos);
+        if (Metrics.isEnabled()) (section.pulse ? pulseTimer : handlerTimer).record(nanos);
+        if (nanos <= budgetNanos) return;
+
+        StackTraceElement[] stack = section.stack;
+        Stall stall = new Stall(section.name, nanos, stack == null ? new StackTraceElement[0] : stack);
+        stallCounter.increment();
+        stallCount++;
+        synchronized (stalls) {
+            if (stalls.size() == KEPT_STALLS) stalls.removeFirst();
+            stalls.addLast(stall);
+        }
+        if (LogSink.isEnabled()) LogSink.log("Stall: " + stall);
+        listener.accept(stall);
+    }
+
+    public TimerStats getPulseSummary() { return pulses.summary("pulse"); }
+    public TimerStats getHandlerSummary() { return handlers.summary("handler"); }
+    public long getBudgetNanos() { return budgetNanos; }
+    public long getStallCount() { return stallCount; }
+
+    // Most recent first
+    public List<Stall> getStalls() {
+        synchronized (stalls) {
+            List<Stall> recent = new ArrayList<>(stalls);
+            Collections.reverse(recent);
+            return recent;
+        }
+    }
+
+    public void shutdown() {
+        sampler.shutdownNow();
+    }
+
+    // Runs when the section's budget is used up; samples it if it is still running
+    private void sample(Section section) {
+        if (current != section) return;
+        StackTraceElement[] stack = watched.getStackTrace();
+        if (current == section) section.stack = stack;
+    }
+}
@@ -0,0 +1,288 @@
+package src.View;
+
+import src.Board.CircuitBoard;
+import src.Component.*;
+import src.Utils.ConnectionLogic;
+import src.Utils.GuiUtils;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.TransferMode;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeType;
+
+// Retained grid of cell nodes: each cell is created once with its handlers and tooltip,
+// and an edit only re-renders the touched cell and its neighbours.
+public class GridBoardView extends GridPane implements BoardView {
+    private static final double CELL_SIZE = 60;
+    private static final int GLYPH_KINDS = 4;
+    private static final javafx.scene.effect.Glow GLOW = new javafx.scene.effect.Glow(0.8);
+
+    private final CellActions actions;
+    private CircuitBoard board;
+    private Cell[][] cells = new Cell[0][0];
+    private boolean bulbLit = false;
+
+    public GridBoardView(CellActions actions) {
+        this.actions = actions;
+        setAlignment(Pos.CENTER);
+        setHgap(5);
+        setVgap(5);
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void setBoard(CircuitBoard board) {
+        this.board = board;
+        if (board == null) {
+            getChildren().clear();
+            cells = new Cell[0][0];
+            return;
+        }
+
+        if (cells.length != board.getRows() || cells.length == 0 || cells[0].length != board.getCols()) {
+            getChildren().clear();
+            cells = new Cell[board.getRows()][board.getCols()];
+            for (int r = 0; r < board.getRows(); r++) {
+                for (int c = 0; c < board.getCols(); c++) {
+                    cells[r][c] = new Cell(r, c);
+                    add(cells[r][c].pane, c, r);
+                }
+            }
+        }
+        refreshAll();
+    }
+
+    @Override
+    public void setBulbLit(boolean lit) {
+        this.bulbLit = lit;
+    }
+
+    @Override
+    public void refreshAll() {
+        if (board == null) return;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                renderCell(r, c);
+            }
+        }
+    }
+
+    @Override
+    public void refreshAround(int row, int col) {
+        if (board == null) return;
+        renderCell(row, col);
+        renderCell(row - 1, col);
+        renderCell(row + 1, col);
+        renderCell(row, col - 1);
+        renderCell(row, col + 1);
+    }
+
+    private void renderCell(int row, int col) {
+        if (row < 0 || row >= board.getRows() || col < 0 || col >= board.getCols()) return;
+        Component comp = board.getComponent(row, col);
+        Cell cell = cells[row][col];
+        cell.render(comp);
+
+        // Markers sit on the right and bottom edges of the cell
+        cell.rightMarker.setVisible(ConnectionLogic.areConnected(comp, board.getComponent(row, col + 1), 0, 1));
+        cell.bottomMarker.setVisible(ConnectionLogic.areConnected(comp, board.getComponent(row + 1, col), 1, 0));
+    }
+
+    // Nodes are built once per cell (glyphs on first use) and only restyled when it changes
+    private class Cell {
+        final StackPane pane = new StackPane();
+        final StackPane content = new StackPane();
+        final Rectangle bg = new Rectangle(CELL_SIZE, CELL_SIZE);
+        final Node rightMarker = GuiUtils.createConnectionMarker(32, 0);
+        final Node bottomMarker = GuiUtils.createConnectionMarker(0, 32);
+        // Wiring drawn over the background, one per glyph kind, see glyphKind
+        final Node[] glyphs = new Node[GLYPH_KINDS];
+        final Tooltip tip = new Tooltip();
+        boolean tipInstalled = false;
+
+        Cell(int row, int col) {
+            pane.setMinSize(CELL_SIZE, CELL_SIZE);
+            pane.setPrefSize(CELL_SIZE, CELL_SIZE);
+            pane.setMaxSize(CELL_SIZE, CELL_SIZE);
+            bg.setStrokeType(StrokeType.INSIDE);
+            content.getChildren().add(bg);
+            rightMarker.setVisible(false);
+            bottomMarker.setVisible(false);
+            pane.getChildren().addAll(content, rightMarker, bottomMarker);
+
+            tip.setStyle("-fx-font-size: 14px; -fx-background-color: #222; -fx-text-fill: white;");
+            tip.setShowDelay(javafx.util.Duration.millis(50));
+
+            // Drag
+            pane.setOnDragOver(event -> {
+                if (event.getGestureSource() != pane && event.getDragboard().hasString()) {
+                    event.acceptTransferModes(TransferMode.COPY);
+                }
+                event.consume();
+            });
+
+            // Drop
+            pane.setOnDragDropped(event -> {
+                Dragboard db = event.getDragboard();
+                boolean success = false;
+                if (db.hasString()) {
+                    String[] data = db.getString().split(":");
+                    String type = data[0];
+                    double val = (data.length > 1) ? Double.parseDouble(data[1]) : 0.0;
+                    actions.onDrop(row, col, type, val);
+                    success = true;
+                }
+                event.setDropCompleted(success);
+                event.consume();
+            });
+
+            // Click (left for rotate, right for remove)
+            pane.setOnMouseClicked(event -> {
+                if (event.getButton() == MouseButton.SECONDARY) {
+                    actions.onSecondaryClick(row, col);
+                } else if (event.getButton() == MouseButton.PRIMARY && board.getComponent(row, col) != null) {
+                    actions.onPrimaryClick(row, col, pane);
+                }
+            });
+        }
+
+        void render(Component comp) {
+            bg.setStroke(Color.BLACK);
+            bg.setEffect(null);
+            showGlyph(comp);
+
+            if (comp == null) {
+                bg.setFill(Color.WHITE);
+                content.setRotate(0);
+                setTooltip(null);
+            } else {
+                if (comp instanceof Source) {
+                    bg.setFill(Color.RED);
+                } else if (comp instanceof Destination) {
+                    bg.setFill(Color.BLUE);
+                } else if (comp instanceof Resistor) {
+                    bg.setFill(Color.ORANGE);
+                } else if (comp instanceof Bulb) {
+                    if (bulbLit) {
+                        bg.setFill(Color.YELLOW);
+                        bg.setEffect(GLOW);
+                    } else {
+                        bg.setFill(Color.DARKKHAKI);
+                    }
+                } else if (comp instanceof Capacitor) {
+                    bg.setFill(Color.GREEN);
+                } else if (comp instanceof Wire || comp instanceof CornerWire || comp instanceof TWire) {
+                    bg.setFill(Color.BLACK);
+                } else if (comp instanceof Block) {
+                    bg.setFill(Color.DARKGRAY);
+                    bg.setStroke(Color.GRAY);
+                }
+
+                // Rotation & Hover mouse for info
+                content.setRotate(comp.getRotationDegree());
+                setTooltip(GuiUtils.describe(comp));
+            }
+        }
+
+        // Shows the glyph for the component, creating it the first time; hides the others
+        private void showGlyph(Component comp) {
+            int kind = glyphKind(comp);
+            if (kind >= 0 && glyphs[kind] == null) {
+                glyphs[kind] = createDirectionNode(comp);
+                content.getChildren().add(glyphs[kind]);
+            }
+            for (int i = 0; i < GLYPH_KINDS; i++) {
+                if (glyphs[i] != null) glyphs[i].setVisible(i == kind);
+            }
+        }
+
+        private void setTooltip(String info) {
+            if (info == null) {
+                if (tipInstalled) Tooltip.uninstall(pane, tip);
+                tipInstalled = false;
+                return;
+            }
+            tip.setText(info);
+            if (!tipInstalled) Tooltip.install(pane, tip);
+            tipInstalled = true;
+        }
+    }
+
+    // Which createDirectionNode shape the component uses, or -1 for none
+    static int glyphKind(Component comp) {
+        if (comp instanceof CornerWire) return 0;
+        if (comp instanceof TWire) return 1;
+        if (comp instanceof Wire || comp instanceof Resistor || comp instanceof Capacitor) return 2;
+        if (comp instanceof Source) return 3;
+        return -1;
+    }
+
+    static Node createDirectionNode(Component comp) {
+        // Corner wire (L-shaped, no arrow)
+        if (comp instanceof CornerWire) {
+            Pane visualPane = new Pane();
+            visualPane.setPrefSize(CELL_SIZE, CELL_SIZE);
+
+            javafx.scene.shape.Polyline path = new javafx.scene.shape.Polyline(
+                30.0, 60.0,
+                30.0, 30.0,
+                60.0, 30.0
+            );
+            path.setStroke(Color.WHITE);
+            path.setStrokeWidth(4);
+            path.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+
+            visualPane.getChildren().add(path);
+            visualPane.setOpacity(0.9);
+            return visualPane;
+        }
+        // T-Wire (T-shaped, no arrow)
+        if (comp instanceof TWire) {
+            Pane visualPane = new Pane();
+            visualPane.setPrefSize(CELL_SIZE, CELL_SIZE);
+
+            javafx.scene.shape.Line horz = new javafx.scene.shape.Line(0, 30, 60, 30);
+            horz.setStroke(Color.WHITE);
+            horz.setStrokeWidth(4);
+            horz.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+
+            javafx.scene.shape.Line vert = new javafx.scene.shape.Line(30, 30, 30, 60);
+            vert.setStroke(Color.WHITE);
+            vert.setStrokeWidth(4);
+            vert.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+
+            visualPane.getChildren().addAll(horz, vert);
+            visualPane.setOpacity(0.9);
+            return visualPane;
+        }
+        // Straight Wire (Line, no arrow)
+        if (comp instanceof Wire || comp instanceof Resistor || comp instanceof Capacitor) {
+            javafx.scene.shape.Line line = new javafx.scene.shape.Line(0, 30, 60, 30);
+            line.setStroke(Color.WHITE);
+            line.setStrokeWidth(4);
+            line.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+            line.setOpacity(0.9);
+            return line;
+        }
+        // Source (Arrow for direction since this only has 1 output port)
+        if (comp instanceof Source) {
+            javafx.scene.shape.Polygon arrow = new javafx.scene.shape.Polygon();
+            arrow.getPoints().addAll(-10.0, -5.0, -10.0, 5.0, 10.0, 0.0);
+            arrow.setFill(Color.WHITE);
+            arrow.setOpacity(0.7);
+            return arrow;
+        }
+        return null;
+    }
+}